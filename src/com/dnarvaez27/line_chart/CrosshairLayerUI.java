@@ -0,0 +1,239 @@
+package com.dnarvaez27.line_chart;
+
+import javax.swing.JComponent;
+import javax.swing.JLayer;
+import javax.swing.SwingUtilities;
+import javax.swing.plaf.LayerUI;
+
+import java.awt.AWTEvent;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.RenderingHints;
+import java.awt.event.MouseEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+/**
+ * Capa que pinta una mira (crosshair) en la posición del mouse y resalta el dato más cercano, sobre un LineChart.<br>
+ * La gráfica se pinta una sola vez en una imagen en caché, y al mover el mouse solo se repintan las franjas de la mira y los recuadros del resaltado
+ * que cambiaron, copiándolos desde la caché.<br>
+ * <b>Uso: </b> <code>frame.add( new JLayer&lt;&gt;( lineChart, new CrosshairLayerUI( ) ) )</code>
+ *
+ * @author d.narvaez11
+ */
+public class CrosshairLayerUI extends LayerUI<LineChart>
+{
+	private static final long serialVersionUID = 4410957823065121873L;
+
+	/**
+	 * Radio del resaltado del dato más cercano
+	 */
+	private static final int radioResaltado = 8;
+
+	/**
+	 * Stroke del resaltado del dato más cercano
+	 */
+	private static final BasicStroke trazoResaltado = new BasicStroke( 2f );
+
+	/**
+	 * Posición del dato resaltado, o -1 si no hay ninguno
+	 */
+	private int resaltado = -1;
+
+	/**
+	 * Listener del cambio de gráfica de la capa (propiedad "view" del JLayer), que lo pasa a
+	 * {@link #applyPropertyChange(PropertyChangeEvent, JLayer)}
+	 */
+	private final PropertyChangeListener vistaListener = new PropertyChangeListener( )
+	{
+		@Override
+		@SuppressWarnings( "unchecked" )
+		public void propertyChange( PropertyChangeEvent evt )
+		{
+			applyPropertyChange( evt, ( JLayer<LineChart> ) evt.getSource( ) );
+		}
+	};
+
+	/**
+	 * Coordenada en X del dato resaltado
+	 */
+	private int xResaltado;
+
+	/**
+	 * Coordenada en X de la mira, o -1 si no se muestra
+	 */
+	private int xMira = -1;
+
+	/**
+	 * Coordenada en Y del dato resaltado
+	 */
+	private int yResaltado;
+
+	/**
+	 * Coordenada en Y de la mira
+	 */
+	private int yMira;
+
+	/**
+	 * Mueve la mira y el resaltado, repintando solo las regiones que cambian
+	 *
+	 * @param layer Capa de la gráfica
+	 * @param x Nueva coordenada en X de la mira, o -1 para esconderla
+	 * @param y Nueva coordenada en Y de la mira
+	 */
+	private void mover( JLayer<? extends LineChart> layer, int x, int y )
+	{
+		LineChart chart = layer.getView( );
+		int dato = x < 0 ? -1 : chart.darDatoCercano( x );
+		int xDato = dato < 0 ? 0 : ( int ) Math.round( chart.darXDato( dato ) );
+		int yDato = dato < 0 ? 0 : ( int ) Math.round( chart.darYDato( dato ) );
+
+		int xAnterior = xMira;
+		int yAnterior = yMira;
+		int datoAnterior = resaltado;
+		int xDatoAnterior = xResaltado;
+		int yDatoAnterior = yResaltado;
+
+		xMira = x;
+		yMira = y;
+		resaltado = dato;
+		xResaltado = xDato;
+		yResaltado = yDato;
+
+		int width = layer.getWidth( );
+		int height = layer.getHeight( );
+
+		if( xAnterior != x )
+		{
+			if( xAnterior >= 0 )
+			{
+				layer.paintImmediately( xAnterior - 1, 0, 3, height );
+			}
+			if( x >= 0 )
+			{
+				layer.paintImmediately( x - 1, 0, 3, height );
+			}
+		}
+		if( yAnterior != y || ( x < 0 ) != ( xAnterior < 0 ) )
+		{
+			if( xAnterior >= 0 )
+			{
+				layer.paintImmediately( 0, yAnterior - 1, width, 3 );
+			}
+			if( x >= 0 )
+			{
+				layer.paintImmediately( 0, y - 1, width, 3 );
+			}
+		}
+		if( datoAnterior != dato || xDatoAnterior != xDato || yDatoAnterior != yDato )
+		{
+			int lado = ( radioResaltado + 2 ) * 2;
+			if( datoAnterior >= 0 )
+			{
+				layer.paintImmediately( xDatoAnterior - ( lado / 2 ), yDatoAnterior - ( lado / 2 ), lado, lado );
+			}
+			if( dato >= 0 )
+			{
+				layer.paintImmediately( xDato - ( lado / 2 ), yDato - ( lado / 2 ), lado, lado );
+			}
+		}
+	}
+
+	/**
+	 * Si la gráfica de la capa cambia, se pasa la caché de la gráfica anterior a la nueva y se esconde la mira
+	 */
+	@Override
+	public void applyPropertyChange( PropertyChangeEvent evt, JLayer<? extends LineChart> l )
+	{
+		super.applyPropertyChange( evt, l );
+		if( "view".equals( evt.getPropertyName( ) ) )
+		{
+			if( evt.getOldValue( ) instanceof LineChart )
+			{
+				( ( LineChart ) evt.getOldValue( ) ).setUsarCache( false );
+			}
+			if( evt.getNewValue( ) instanceof LineChart )
+			{
+				( ( LineChart ) evt.getNewValue( ) ).setUsarCache( true );
+			}
+			xMira = -1;
+			resaltado = -1;
+		}
+	}
+
+	@Override
+	public void installUI( JComponent c )
+	{
+		super.installUI( c );
+		@SuppressWarnings( "unchecked" )
+		JLayer<LineChart> layer = ( JLayer<LineChart> ) c;
+		layer.setLayerEventMask( AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK );
+		layer.addPropertyChangeListener( "view", vistaListener );
+		if( layer.getView( ) != null )
+		{
+			layer.getView( ).setUsarCache( true );
+		}
+	}
+
+	@Override
+	public void paint( Graphics g, JComponent c )
+	{
+		super.paint( g, c );
+
+		if( xMira < 0 )
+		{
+			return;
+		}
+		@SuppressWarnings( "unchecked" )
+		JLayer<LineChart> layer = ( JLayer<LineChart> ) c;
+		LineChart chart = layer.getView( );
+
+		Graphics2D graphics2d = ( Graphics2D ) g.create( );
+		Color fg = chart.darForeground( );
+		graphics2d.setColor( new Color( fg.getRed( ), fg.getGreen( ), fg.getBlue( ), 128 ) );
+		graphics2d.drawLine( xMira, 0, xMira, c.getHeight( ) );
+		graphics2d.drawLine( 0, yMira, c.getWidth( ), yMira );
+
+		if( resaltado >= 0 && resaltado < chart.darCantidadDatos( ) )
+		{
+			graphics2d.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+			graphics2d.setStroke( trazoResaltado );
+			graphics2d.setColor( chart.darColorDato( resaltado ) );
+			graphics2d.drawOval( xResaltado - radioResaltado, yResaltado - radioResaltado, radioResaltado * 2, radioResaltado * 2 );
+		}
+		graphics2d.dispose( );
+	}
+
+	@Override
+	protected void processMouseEvent( MouseEvent e, JLayer<? extends LineChart> l )
+	{
+		if( e.getID( ) == MouseEvent.MOUSE_EXITED )
+		{
+			mover( l, -1, 0 );
+		}
+	}
+
+	@Override
+	protected void processMouseMotionEvent( MouseEvent e, JLayer<? extends LineChart> l )
+	{
+		Point p = SwingUtilities.convertPoint( e.getComponent( ), e.getPoint( ), l );
+		mover( l, p.x, p.y );
+	}
+
+	@Override
+	public void uninstallUI( JComponent c )
+	{
+		@SuppressWarnings( "unchecked" )
+		JLayer<LineChart> layer = ( JLayer<LineChart> ) c;
+		layer.setLayerEventMask( 0 );
+		layer.removePropertyChangeListener( "view", vistaListener );
+		if( layer.getView( ) != null )
+		{
+			layer.getView( ).setUsarCache( false );
+		}
+		super.uninstallUI( c );
+	}
+}
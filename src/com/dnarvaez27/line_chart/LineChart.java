@@ -1,8 +1,13 @@
 package com.dnarvaez27.line_chart;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 
 import javax.swing.BorderFactory;
 import javax.swing.JFrame;
@@ -10,6 +15,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.Popup;
 import javax.swing.PopupFactory;
+import javax.swing.Timer;
 
 import com.dnarvaez27.line_chart.recursos.UtilidadesLineChart;
 import com.dnarvaez27.line_chart.recursos.UtilidadesLineChart.Colors;
@@ -17,16 +23,27 @@ import com.dnarvaez27.line_chart.recursos.UtilidadesLineChart.Colors;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.Shape;
+import java.awt.Transparency;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionListener;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Line2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 
 /**
  * Clase que modela un panel con una gráfica de lineas
@@ -35,45 +52,6 @@ import java.awt.geom.Rectangle2D;
  */
 public class LineChart extends JPanel
 {
-	/**
-	 * Modela un dato de la gráfica
-	 *
-	 * @author d.narvaez11
-	 */
-	private class Dato implements Comparable<Dato>
-	{
-		/**
-		 * Etiqueta del dato
-		 */
-		private String textX;
-
-		/**
-		 * Valor del dato
-		 */
-		private double valor;
-
-		/**
-		 * Constructor de un Dato
-		 *
-		 * @param valor Valor del dato
-		 * @param textX Etiqueta del dato
-		 */
-		public Dato( double valor, String textX )
-		{
-			this.valor = valor;
-			this.textX = textX;
-		}
-
-		/**
-		 * Comparador para ordenar los datos
-		 */
-		@Override
-		public int compareTo( Dato d )
-		{
-			return Double.compare( valor, d.valor );
-		}
-	}
-
 	/**
 	 * Modela el Listener para el MouseOver de los puntos de interés
 	 *
@@ -179,22 +157,154 @@ public class LineChart extends JPanel
 		}
 	}
 
+	/**
+	 * Modela una serie adicional de la gráfica, con nombre y color propios
+	 *
+	 * @author d.narvaez11
+	 */
+	private static class Serie
+	{
+		/**
+		 * Color de la linea de la serie
+		 */
+		private Color color;
+
+		/**
+		 * Datos de la serie
+		 */
+		private SerieLineChart datos;
+
+		/**
+		 * Cantidad de puntos proyectados en el último pintado
+		 */
+		private int puntos;
+
+		/**
+		 * Coordenadas en X proyectadas, reutilizadas entre pintados
+		 */
+		private int[ ] xs;
+
+		/**
+		 * Coordenadas en Y proyectadas, reutilizadas entre pintados
+		 */
+		private int[ ] ys;
+
+		/**
+		 * Constructor de una Serie
+		 *
+		 * @param color Color de la linea de la serie
+		 * @param datos Datos de la serie
+		 */
+		public Serie( Color color, SerieLineChart datos )
+		{
+			this.color = color;
+			this.datos = datos;
+			xs = new int[ 0 ];
+			ys = new int[ 0 ];
+		}
+	}
+
+	/**
+	 * Modela el Listener que detecta la interacción con la gráfica y su vuelta al reposo, para la calidad adaptativa
+	 *
+	 * @author d.narvaez11
+	 */
+	private class ReposoListener extends ComponentAdapter implements ActionListener
+	{
+		/**
+		 * Al quedar la gráfica en reposo se vuelve a pintar en calidad completa
+		 */
+		@Override
+		public void actionPerformed( ActionEvent e )
+		{
+			calidadReducida = false;
+			cacheValida = false;
+			repaint( );
+		}
+
+		@Override
+		public void componentResized( ComponentEvent e )
+		{
+			marcarInteraccion( );
+		}
+	}
+
+	/**
+	 * Diámetro de los puntos de interés
+	 */
+	private static final int diametroDot = 10;
+
 	/**
 	 * Stoke de la linea de la gráfica
 	 */
 	private static final float graphStroke = 3f;
 
+	/**
+	 * Tiempo en milisegundos sin pintar tras el cual la gráfica vuelve a calidad completa
+	 */
+	private static final int tiempoReposo = 300;
+
+	/**
+	 * Stroke de la linea de la gráfica en calidad completa
+	 */
+	private static final BasicStroke trazoCompleto = new BasicStroke( graphStroke );
+
+	/**
+	 * Stroke de la linea de la gráfica en calidad reducida
+	 */
+	private static final BasicStroke trazoReducido = new BasicStroke( 1f );
+
 	private static final long serialVersionUID = 7201050923138852550L;
 
+	/**
+	 * Define si los datos se guardan comprimidos en memoria
+	 */
+	private boolean almacenamientoComprimido;
+
 	/**
 	 * Background del LineChart
 	 */
 	private Color background;
 
 	/**
-	 * Arreglo de datos de la gráfica
+	 * Alto de la gráfica en el último pintado
+	 */
+	private double altoGrafica;
+
+	/**
+	 * Ancho de la gráfica en el último pintado
 	 */
-	private ArrayList<Dato> datos;
+	private double anchoGrafica;
+
+	/**
+	 * Imagen en la que se pinta la gráfica cuando se usa caché
+	 */
+	private transient BufferedImage cache;
+
+	/**
+	 * Define si la imagen en caché corresponde al estado actual de la gráfica
+	 */
+	private boolean cacheValida;
+
+	/**
+	 * Define si la gráfica reduce su calidad durante la interacción o cuando se excede el presupuesto de tiempo por frame
+	 */
+	private boolean calidadAdaptativa;
+
+	/**
+	 * Define si el frame actual se pinta en calidad reducida
+	 */
+	private boolean calidadReducida;
+
+	/**
+	 * Cantidad máxima de datos por pixel en x para la cual se pintan los puntos de interés
+	 */
+	private double densidadMaximaDots = 1;
+
+	/**
+	 * Serie de datos de la gráfica
+	 */
+	private SerieLineChart datos;
 
 	/**
 	 * Foreground del LineChart.
@@ -236,11 +346,46 @@ public class LineChart extends JPanel
 	 */
 	private Color positive;
 
+	/**
+	 * Series adicionales de la gráfica, por nombre y en orden de creación
+	 */
+	private LinkedHashMap<String, Serie> series;
+
 	/**
 	 * Define si se muestra la grafica completa o solo valores positivos
 	 */
 	private boolean positivoYnegativo;
 
+	/**
+	 * Presupuesto de tiempo por frame en milisegundos para la calidad adaptativa
+	 */
+	private long presupuestoFrame = 16;
+
+	/**
+	 * Listener de interacción y reposo de la calidad adaptativa
+	 */
+	private transient ReposoListener reposoListener;
+
+	/**
+	 * Timer que detecta cuando la gráfica queda en reposo
+	 */
+	private transient Timer timerReposo;
+
+	/**
+	 * Instante en nanosegundos en que terminó de pintarse el último frame
+	 */
+	private long ultimoFrame;
+
+	/**
+	 * Sprites pre-renderizados de los puntos de interés, por color, en pixeles del dispositivo
+	 */
+	private transient HashMap<Color, BufferedImage> sprites;
+
+	/**
+	 * Define si la gráfica se pinta en una imagen en caché, que solo se vuelve a pintar cuando la gráfica cambia
+	 */
+	private boolean usarCache;
+
 	/**
 	 * Margen en x
 	 */
@@ -256,10 +401,14 @@ public class LineChart extends JPanel
 	 */
 	public LineChart( )
 	{
-		datos = new ArrayList<>( );
+		datos = almacenamientoComprimido ? new SerieComprimida( ) : new SerieArreglo( );
+		series = new LinkedHashMap<>( );
 		listeners = new ArrayList<>( );
 		positivoYnegativo = true;
 
+		reposoListener = new ReposoListener( );
+		addComponentListener( reposoListener );
+
 		setPreferredSize( new Dimension( 700, 500 ) );
 		setBackground( UtilidadesLineChart.Colors.GRIS );
 	}
@@ -270,8 +419,10 @@ public class LineChart extends JPanel
 	public void actualizar( )
 	{
 		removeListeners( );
+		cacheValida = false;
 
-		datos = new ArrayList<>( );
+		datos = almacenamientoComprimido ? new SerieComprimida( ) : new SerieArreglo( );
+		series = new LinkedHashMap<>( );
 		listeners = new ArrayList<>( );
 		positivoYnegativo = true;
 
@@ -286,7 +437,8 @@ public class LineChart extends JPanel
 	 */
 	public void agregarDato( double valor )
 	{
-		datos.add( new Dato( valor, null ) );
+		datos.agregar( System.currentTimeMillis( ), valor, null );
+		cacheValida = false;
 	}
 
 	/**
@@ -297,7 +449,264 @@ public class LineChart extends JPanel
 	 */
 	public void agregarDato( double valor, String texto )
 	{
-		datos.add( new Dato( valor, texto ) );
+		datos.agregar( System.currentTimeMillis( ), valor, texto );
+		cacheValida = false;
+	}
+
+	/**
+	 * Agrega un dato con tiempo a la gráfica
+	 *
+	 * @param tiempo Tiempo del dato en milisegundos
+	 * @param valor Valor del dato
+	 * @param texto Etiqueta del dato. Puede ser null
+	 */
+	public void agregarDato( long tiempo, double valor, String texto )
+	{
+		datos.agregar( tiempo, valor, texto );
+		cacheValida = false;
+	}
+
+	/**
+	 * Agrega un dato a una serie adicional
+	 *
+	 * @param serie Nombre de la serie
+	 * @param valor Valor del dato
+	 * @throws IllegalArgumentException Si la serie no existe
+	 */
+	public void agregarDatoSerie( String serie, double valor )
+	{
+		agregarDatoSerie( serie, System.currentTimeMillis( ), valor );
+	}
+
+	/**
+	 * Agrega un dato con tiempo a una serie adicional
+	 *
+	 * @param serie Nombre de la serie
+	 * @param tiempo Tiempo del dato en milisegundos
+	 * @param valor Valor del dato
+	 * @throws IllegalArgumentException Si la serie no existe
+	 */
+	public void agregarDatoSerie( String serie, long tiempo, double valor )
+	{
+		Serie s = series.get( serie );
+		if( s == null )
+		{
+			throw new IllegalArgumentException( "No existe la serie: " + serie );
+		}
+		s.datos.agregar( tiempo, valor, null );
+		cacheValida = false;
+	}
+
+	/**
+	 * Agrega una serie adicional a la gráfica. Las series comparten los ejes con los datos principales y se pintan como una linea de su color, sin puntos ni etiquetas
+	 *
+	 * @param nombre Nombre de la serie
+	 * @param color Color de la linea de la serie
+	 * @throws IllegalArgumentException Si el nombre o el color son null, o si ya existe una serie con ese nombre
+	 */
+	public void agregarSerie( String nombre, Color color )
+	{
+		if( nombre == null || color == null )
+		{
+			throw new IllegalArgumentException( "El nombre y el color de la serie no pueden ser null" );
+		}
+		if( series.containsKey( nombre ) )
+		{
+			throw new IllegalArgumentException( "Ya existe la serie: " + nombre );
+		}
+		series.put( nombre, new Serie( color, almacenamientoComprimido ? new SerieComprimida( ) : new SerieArreglo( ) ) );
+		cacheValida = false;
+	}
+
+	/**
+	 * Restaura la gráfica desde un snapshot binario escrito con {@link #guardarSnapshot(WritableByteChannel)}.<br>
+	 * Reemplaza los datos (valores, etiquetas y tiempos), las series adicionales y las opciones de visualización. Los valores y tiempos se leen en bloque, sin crear objetos por dato.<br>
+	 * Solo se leen del canal los bytes del snapshot, por lo que después pueden seguir otros datos u otros snapshots
+	 *
+	 * @param canal Canal del cual se lee el snapshot
+	 * @throws IOException Si el snapshot no es válido o hay un error de lectura
+	 */
+	public void cargarSnapshot( ReadableByteChannel canal ) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocateDirect( SnapshotLineChart.capacidadBuffer );
+		buffer.flip( );
+
+		SnapshotLineChart.exigir( canal, buffer, SnapshotLineChart.tamañoEncabezado );
+		if( buffer.getInt( ) != SnapshotLineChart.magic )
+		{
+			throw new IOException( "El canal no contiene un snapshot de LineChart" );
+		}
+		short version = buffer.getShort( );
+		if( version < 1 || version > SnapshotLineChart.version )
+		{
+			throw new IOException( "Versión de snapshot no soportada: " + version );
+		}
+		byte opciones = buffer.get( );
+		byte coloresPresentes = buffer.get( );
+		Color[ ] colores = new Color[ 4 ];
+		for( int i = 0; i < colores.length; i++ )
+		{
+			int argb = buffer.getInt( );
+			colores[ i ] = ( coloresPresentes & ( 1 << i ) ) != 0 ? new Color( argb, true ) : null;
+		}
+
+		SerieLineChart serie = SnapshotLineChart.leerSerie( canal, buffer, ( opciones & 16 ) != 0 );
+
+		LinkedHashMap<String, Serie> seriesLeidas = new LinkedHashMap<>( );
+		if( version >= 2 )
+		{
+			SnapshotLineChart.exigir( canal, buffer, 4 );
+			int cantidadSeries = buffer.getInt( );
+			for( int i = 0; i < cantidadSeries; i++ )
+			{
+				String nombre = SnapshotLineChart.leerTexto( canal, buffer );
+				SnapshotLineChart.exigir( canal, buffer, 4 );
+				Color color = new Color( buffer.getInt( ), true );
+				seriesLeidas.put( nombre, new Serie( color, SnapshotLineChart.leerSerie( canal, buffer, ( opciones & 16 ) != 0 ) ) );
+			}
+		}
+
+		removeListeners( );
+		listeners = new ArrayList<>( );
+		datos = serie;
+		series = seriesLeidas;
+		cacheValida = false;
+
+		formatoMoneda = ( opciones & 1 ) != 0;
+		lineaPromedio = ( opciones & 2 ) != 0;
+		positivoYnegativo = ( opciones & 4 ) != 0;
+		muestraNombrePopup = ( opciones & 8 ) != 0;
+		almacenamientoComprimido = ( opciones & 16 ) != 0;
+		setColors( colores[ 0 ], colores[ 1 ], colores[ 2 ], colores[ 3 ] );
+		setBackground( background == null ? UtilidadesLineChart.Colors.GRIS : background );
+	}
+
+	/**
+	 * Retorna una copia de la serie con el almacenamiento actual (comprimido o en arreglos)
+	 * 
+	 * @param datos Serie a convertir
+	 * @return Serie convertida
+	 */
+	private SerieLineChart convertirSerie( SerieLineChart datos )
+	{
+		SerieLineChart serie = almacenamientoComprimido ? new SerieComprimida( ) : new SerieArreglo( );
+		for( int i = 0; i < datos.darCantidad( ); i++ )
+		{
+			serie.agregar( datos.darTiempo( i ), datos.darValor( i ), datos.darEtiqueta( i ) );
+		}
+		return serie;
+	}
+
+	/**
+	 * @return Cantidad de datos de la gráfica
+	 */
+	int darCantidadDatos( )
+	{
+		return datos.darCantidad( );
+	}
+
+	/**
+	 * @return Cantidad de posiciones del eje X: la mayor cantidad de datos entre los datos principales y las series
+	 */
+	private int darCantidadEje( )
+	{
+		int cantidad = datos.darCantidad( );
+		for( Serie serie : series.values( ) )
+		{
+			cantidad = Math.max( cantidad, serie.datos.darCantidad( ) );
+		}
+		return cantidad;
+	}
+
+	/**
+	 * @param i Posición del dato
+	 * @return Color con el que se pinta el dato
+	 */
+	Color darColorDato( int i )
+	{
+		if( datos.darValor( i ) >= 0 )
+		{
+			return positive == null ? UtilidadesLineChart.Colors.GREEN : positive;
+		}
+		return negative == null ? UtilidadesLineChart.Colors.PINK : negative;
+	}
+
+	/**
+	 * Retorna el dato más cercano a una coordenada en X, según el último pintado
+	 * 
+	 * @param x Coordenada en X
+	 * @return Posición del dato más cercano, o -1 si la gráfica no tiene datos o aún no se ha pintado
+	 */
+	int darDatoCercano( double x )
+	{
+		int cantidad = datos.darCantidad( );
+		if( cantidad == 0 || anchoGrafica <= 0 )
+		{
+			return -1;
+		}
+		int i = ( int ) Math.round( ( ( x - xIni ) * darCantidadEje( ) ) / anchoGrafica );
+		return Math.max( 0, Math.min( cantidad - 1, i ) );
+	}
+
+	/**
+	 * @return Foreground del LineChart
+	 */
+	Color darForeground( )
+	{
+		return foreground == null ? UtilidadesLineChart.Colors.BLANCO : foreground;
+	}
+
+	/**
+	 * Retorna el valor máximo absoluto de la gráfica, a partir de los agregados de los datos principales y de cada serie
+	 * 
+	 * @return Valor máximo absoluto
+	 */
+	private double darMaxValue( )
+	{
+		double maxValue = 0;
+		if( datos.darCantidad( ) > 0 )
+		{
+			maxValue = Math.max( datos.darMaximo( ), Math.abs( datos.darMinimo( ) ) );
+		}
+		for( Serie serie : series.values( ) )
+		{
+			if( serie.datos.darCantidad( ) > 0 )
+			{
+				maxValue = Math.max( maxValue, Math.max( serie.datos.darMaximo( ), Math.abs( serie.datos.darMinimo( ) ) ) );
+			}
+		}
+		return maxValue;
+	}
+
+	/**
+	 * Retorna el sprite del punto de interés para un color, creándolo si no existe o si cambió la escala
+	 * 
+	 * @param color Color del punto
+	 * @param escala Escala de la gráfica en la que se pinta (por ejemplo 2 en pantallas HiDPI), para que el sprite tenga la resolución del dispositivo
+	 * @return Sprite del punto con el color dado
+	 */
+	private BufferedImage darSprite( Color color, double escala )
+	{
+		if( sprites == null )
+		{
+			sprites = new HashMap<>( );
+		}
+		int lado = ( int ) Math.ceil( diametroDot * escala );
+		BufferedImage sprite = sprites.get( color );
+		if( sprite == null || sprite.getWidth( ) != lado )
+		{
+			GraphicsConfiguration gc = getGraphicsConfiguration( );
+			sprite = gc != null ? gc.createCompatibleImage( lado, lado, Transparency.TRANSLUCENT ) : new BufferedImage( lado, lado, BufferedImage.TYPE_INT_ARGB );
+
+			Graphics2D g = sprite.createGraphics( );
+			g.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+			g.setColor( color );
+			g.fill( new Ellipse2D.Double( 0, 0, lado, lado ) );
+			g.dispose( );
+
+			sprites.put( color, sprite );
+		}
+		return sprite;
 	}
 
 	/**
@@ -312,12 +721,50 @@ public class LineChart extends JPanel
 	 */
 	private double darXdeYenRecta( double x1, double y1, double x2, double y2, double y0 )
 	{
+		if( x1 == x2 ) // Recta vertical
+		{
+			return x1;
+		}
 		double m = ( y2 - y1 ) / ( x2 - x1 );
 		double b = y1 - ( m * x1 );
 		double x0 = ( b - y0 ) / ( -m );
 		return x0;
 	}
 
+	/**
+	 * @param i Posición del dato
+	 * @return Coordenada en X del dato, según el último pintado
+	 */
+	double darXDato( int i )
+	{
+		return ( ( i * anchoGrafica ) / darCantidadEje( ) ) + xIni;
+	}
+
+	/**
+	 * Retorna la coordenada en Y de un valor
+	 * 
+	 * @param valor Valor del dato
+	 * @param halfHeight Altura del eje X
+	 * @param maxValue Valor máximo de la gráfica
+	 * @return Coordenada en Y del valor
+	 */
+	private double darY( double valor, double halfHeight, double maxValue )
+	{
+		double eje = positivoYnegativo ? halfHeight : halfHeight - 20;
+		double pixVal = ( ( eje - ( yIni * 2 ) ) * valor ) / maxValue;
+		return valor < 0 ? eje + Math.abs( pixVal ) : eje - pixVal;
+	}
+
+	/**
+	 * @param i Posición del dato
+	 * @return Coordenada en Y del dato, según el último pintado
+	 */
+	double darYDato( int i )
+	{
+		double maxValue = darMaxValue( );
+		return darY( datos.darValor( i ), positivoYnegativo ? altoGrafica / 2 : altoGrafica, maxValue );
+	}
+
 	/**
 	 * Configura el formato de moneda para el eje Y
 	 *
@@ -326,6 +773,64 @@ public class LineChart extends JPanel
 	public void ejeYFormatoMoneda( boolean formatoMoneda )
 	{
 		this.formatoMoneda = formatoMoneda;
+		cacheValida = false;
+	}
+
+	/**
+	 * Define si un Shape está dentro del área que se está pintando. Solo se crean listeners para los puntos de interés dentro de ella, pues
+	 * antes de pintar se remueven los de esa área
+	 *
+	 * @param graphics2d Gráfica en la que se pinta
+	 * @param shape Shape a verificar
+	 * @return True si el Shape está dentro del área que se pinta, False de lo contrario
+	 */
+	private boolean estaEnClip( Graphics2D graphics2d, Shape shape )
+	{
+		Rectangle clip = graphics2d.getClipBounds( );
+		return clip == null || shape.intersects( clip );
+	}
+
+	/**
+	 * Escribe un snapshot binario compacto de la gráfica: datos (valores, etiquetas y tiempos), series adicionales y opciones de visualización.<br>
+	 * Los valores y tiempos se escriben en bloque. Para restaurarlo: {@link #cargarSnapshot(ReadableByteChannel)}
+	 *
+	 * @param canal Canal en el cual se escribe el snapshot
+	 * @throws IOException Si hay un error de escritura
+	 */
+	public void guardarSnapshot( WritableByteChannel canal ) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocateDirect( SnapshotLineChart.capacidadBuffer );
+
+		int opciones = ( formatoMoneda ? 1 : 0 ) | ( lineaPromedio ? 2 : 0 ) | ( positivoYnegativo ? 4 : 0 ) | ( muestraNombrePopup ? 8 : 0 ) | ( almacenamientoComprimido ? 16 : 0 );
+		Color[ ] colores = { positive, negative, background, foreground };
+		int coloresPresentes = 0;
+		for( int i = 0; i < colores.length; i++ )
+		{
+			coloresPresentes |= colores[ i ] != null ? 1 << i : 0;
+		}
+
+		buffer.putInt( SnapshotLineChart.magic );
+		buffer.putShort( SnapshotLineChart.version );
+		buffer.put( ( byte ) opciones );
+		buffer.put( ( byte ) coloresPresentes );
+		for( Color color : colores )
+		{
+			buffer.putInt( color != null ? color.getRGB( ) : 0 );
+		}
+
+		SnapshotLineChart.escribirSerie( canal, buffer, datos );
+
+		SnapshotLineChart.reservar( canal, buffer, 4 );
+		buffer.putInt( series.size( ) );
+		for( String nombre : series.keySet( ) )
+		{
+			Serie serie = series.get( nombre );
+			SnapshotLineChart.escribirTexto( canal, buffer, nombre );
+			SnapshotLineChart.reservar( canal, buffer, 4 );
+			buffer.putInt( serie.color.getRGB( ) );
+			SnapshotLineChart.escribirSerie( canal, buffer, serie.datos );
+		}
+		SnapshotLineChart.vaciar( canal, buffer );
 	}
 
 	/**
@@ -353,17 +858,82 @@ public class LineChart extends JPanel
 		lastPoint = new Point( ( int ) x2, ( int ) y2 );
 	}
 
+	/**
+	 * Indica que hay una interacción en curso (redimensionamiento, datos llegando a alta frecuencia, etc.).<br>
+	 * Si la calidad adaptativa está activa, la gráfica se pinta en calidad reducida hasta quedar en reposo
+	 */
+	public void marcarInteraccion( )
+	{
+		if( !calidadAdaptativa )
+		{
+			return;
+		}
+		calidadReducida = true;
+		cacheValida = false;
+		reiniciarTimerReposo( );
+	}
+
 	@Override
 	public void paint( Graphics g )
 	{
+		if( !usarCache )
+		{
+			pintarGrafica( g );
+			return;
+		}
+		if( getWidth( ) <= 0 || getHeight( ) <= 0 )
+		{
+			return;
+		}
+
+		// La caché tiene la resolución del dispositivo (por ejemplo el doble en pantallas HiDPI) y se pinta de vuelta en el tamaño lógico
+		AffineTransform transform = ( ( Graphics2D ) g ).getTransform( );
+		double escalaX = Math.max( 1, Math.abs( transform.getScaleX( ) ) );
+		double escalaY = Math.max( 1, Math.abs( transform.getScaleY( ) ) );
+		int ancho = ( int ) Math.ceil( getWidth( ) * escalaX );
+		int alto = ( int ) Math.ceil( getHeight( ) * escalaY );
+		if( cache == null || cache.getWidth( ) != ancho || cache.getHeight( ) != alto )
+		{
+			GraphicsConfiguration gc = getGraphicsConfiguration( );
+			cache = gc != null ? gc.createCompatibleImage( ancho, alto ) : new BufferedImage( ancho, alto, BufferedImage.TYPE_INT_RGB );
+			cacheValida = false;
+		}
+		if( !cacheValida )
+		{
+			Graphics2D graphics2d = cache.createGraphics( );
+			graphics2d.scale( ( double ) ancho / getWidth( ), ( double ) alto / getHeight( ) );
+			graphics2d.setFont( getFont( ) );
+			pintarGrafica( graphics2d );
+			graphics2d.dispose( );
+			cacheValida = true;
+		}
+		g.drawImage( cache, 0, 0, getWidth( ), getHeight( ), null );
+	}
+
+	/**
+	 * Pinta la gráfica completa
+	 * 
+	 * @param g Gráfica en la que se pintará
+	 */
+	private void pintarGrafica( Graphics g )
+	{
+		long inicio = System.nanoTime( );
+		boolean reducida = calidadAdaptativa && calidadReducida;
+
 		Graphics2D graphics2d = ( Graphics2D ) g;
 		graphics2d.clearRect( 0, 0, getWidth( ), getHeight( ) );
 
 		super.paint( g );
 
-		double maxPos = Collections.max( datos ).valor;
-		double maxNeg = Math.abs( Collections.min( datos ).valor );
-		double maxValue = Collections.max( new ArrayList<>( Arrays.asList( maxPos, maxNeg ) ) );
+		// Los listeners de los puntos de interés en el área que se repinta se vuelven a crear al pintarlos
+		removeListeners( graphics2d.getClipBounds( ) );
+
+		if( darCantidadEje( ) == 0 )
+		{
+			return;
+		}
+
+		double maxValue = darMaxValue( );
 
 		String texto = String.valueOf( maxValue );
 		texto = formatoMoneda ? UtilidadesLineChart.darFormatoNúmeroValor( texto ) : texto;
@@ -378,16 +948,41 @@ public class LineChart extends JPanel
 
 		lastPoint = new Point( xIni, ( int ) halfHeight );
 
-		if( lineaPromedio )
+		if( reducida )
+		{
+			graphics2d.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF );
+			graphics2d.setRenderingHint( RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED );
+		}
+
+		if( lineaPromedio && !reducida && datos.darCantidad( ) > 0 )
 		{
 			pintarPromedio( graphics2d, width, halfHeight, maxValue );
 		}
 
 		pintarEjes( graphics2d, width, positivoYnegativo ? height : height - 20, /* height / 2 */halfHeight );
 
-		pintarDatos( graphics2d, width, height );
+		anchoGrafica = width;
+		altoGrafica = height;
+		pintarSeries( graphics2d, width, height, reducida );
+		if( datos.darCantidad( ) > 0 )
+		{
+			pintarDatos( graphics2d, width, height, reducida );
+		}
 
 		lastPoint = new Point( xIni, ( int ) halfHeight );
+
+		if( calidadAdaptativa )
+		{
+			long fin = System.nanoTime( );
+			// Solo se reduce la calidad si los frames llegan seguidos, para no oscilar al volver del reposo
+			boolean seguido = ( inicio - ultimoFrame ) < tiempoReposo * 1000000L;
+			if( reducida || ( seguido && ( fin - inicio ) > presupuestoFrame * 1000000L ) )
+			{
+				calidadReducida = true;
+				reiniciarTimerReposo( );
+			}
+			ultimoFrame = fin;
+		}
 	}
 
 	/**
@@ -396,106 +991,91 @@ public class LineChart extends JPanel
 	 * @param graphics2d Gráfica en la que se pintará
 	 * @param width Ancho de la gráfica
 	 * @param height Alto de la gráfica
+	 * @param reducida True si se pinta en calidad reducida: linea delgada, sin puntos ni etiquetas y con menos datos
 	 */
-	private void pintarDatos( Graphics2D graphics2d, final double width, final double height )
+	private void pintarDatos( Graphics2D graphics2d, final double width, final double height, final boolean reducida )
 	{
-		double maxPos = Collections.max( datos ).valor;
-		double maxNeg = Math.abs( Collections.min( datos ).valor );
-		double maxValue = Collections.max( new ArrayList<>( Arrays.asList( maxPos, maxNeg ) ) );
-		int cantidad = datos.size( );
+		double maxValue = darMaxValue( );
+		int cantidad = datos.darCantidad( );
+		int cantidadEje = darCantidadEje( );
 
+		BasicStroke trazo = reducida ? trazoReducido : trazoCompleto;
 		graphics2d.setColor( background == null ? UtilidadesLineChart.Colors.GRIS : background );
-		graphics2d.setStroke( new BasicStroke( graphStroke ) );
+		graphics2d.setStroke( trazo );
 
-		int contador = 0;
-		inicializarPoint( positivoYnegativo ? height / 2 : height, datos.get( 0 ).valor, maxValue );
+		// En calidad reducida los datos se agrupan de a 2 pixeles y de cada grupo se pintan su mínimo y su máximo
+		int paso = reducida ? Math.max( 1, ( int ) ( cantidadEje / ( width / 2 ) ) ) : 1;
+		boolean dots = !reducida && ( ( cantidadEje / width ) <= densidadMaximaDots );
 		double halfHeight = positivoYnegativo ? height / 2 : height;
 
-		for( Dato dato : datos )
-		{
-			final double x1 = lastPoint.getX( );
-			final double y1 = lastPoint.getY( );
+		// Los datos quedan igualmente espaciados, así que se pinta un punto cada saltoDots datos: el menor salto con el que dos puntos no se
+		// sobreponen. Como no depende de dónde empieza el recorrido, un repintado parcial pinta los mismos puntos que uno completo
+		int saltoDots = Math.max( 1, ( int ) Math.ceil( ( diametroDot * cantidadEje ) / width ) );
 
-			double x2 = ( contador++ * width ) / cantidad;
-			double pixVal = ( ( ( positivoYnegativo ? halfHeight : halfHeight - 20 ) - ( yIni * 2 ) ) * dato.valor ) / maxValue;
-			double y2 = 0;
-			x2 += xIni;
+		// Solo se recorren los datos dentro del clip (con un margen para las etiquetas del eje X y los puntos).
+		// Si el clip incluye las etiquetas del eje Y (cuyas marcas llegan hasta la columna xIni) se recorren todos
+		int inicio = 0;
+		int fin = cantidad;
+		Rectangle clip = graphics2d.getClipBounds( );
+		if( clip != null && ( reducida || clip.x > xIni + 1 ) )
+		{
+			int margen = reducida ? 0 : xIni;
+			inicio = Math.min( cantidad, Math.max( 0, ( int ) ( ( ( clip.x - margen - xIni ) * cantidadEje ) / width ) - 1 ) );
+			inicio -= inicio % paso;
+			fin = Math.min( cantidad, ( int ) Math.ceil( ( ( clip.x + clip.width + margen - xIni ) * cantidadEje ) / width ) + paso + 1 );
+		}
 
-			if( dato.valor < 0 )
-			{
-				y2 = ( positivoYnegativo ? halfHeight : halfHeight - 20 ) + Math.abs( pixVal );
-			}
-			else
+		if( inicio == 0 )
+		{
+			inicializarPoint( positivoYnegativo ? height / 2 : height, datos.darValor( 0 ), maxValue );
+		}
+		else
+		{
+			// El punto anterior es el último que se pintaría del grupo anterior
+			int anterior = inicio - 1;
+			if( paso > 1 )
 			{
-				y2 = ( positivoYnegativo ? halfHeight : halfHeight - 20 ) - pixVal;
+				anterior = Math.max( datos.darPosicionMinimo( inicio - paso, inicio ), datos.darPosicionMaximo( inicio - paso, inicio ) );
 			}
+			double xAnterior = ( ( anterior * width ) / cantidadEje ) + xIni;
+			lastPoint = new Point( ( int ) xAnterior, ( int ) darY( datos.darValor( anterior ), halfHeight, maxValue ) );
+		}
 
-			if( ( y1 <= halfHeight ) && ( y2 <= halfHeight ) ) // Ambos por Encima del eje
-			{
-				graphics2d.setColor( positive == null ? UtilidadesLineChart.Colors.GREEN : positive );
-				graphics2d.setStroke( new BasicStroke( graphStroke ) );
-				Line2D.Double linea = new Line2D.Double( x1, y1, x2, y2 );
-				graphics2d.draw( linea );
-			}
-			else if( ( y1 >= halfHeight ) && ( y2 >= halfHeight ) ) // Ambos por Debajo del eje
-			{
-				graphics2d.setColor( negative == null ? UtilidadesLineChart.Colors.PINK : negative );
-				graphics2d.setStroke( new BasicStroke( graphStroke ) );
-				Line2D.Double linea = new Line2D.Double( x1, y1, x2, y2 );
-				graphics2d.draw( linea );
-			}
-			else if( ( y1 < halfHeight ) && ( y2 > halfHeight ) ) // 1: Por encima. 2: Por debajo
+		for( int i = inicio; i < fin; i += paso )
+		{
+			if( paso > 1 ) // Se pintan el mínimo y el máximo del grupo, en el orden en que aparecen
 			{
-				double y1t = ( halfHeight - y1 );
-				double y2t = ( halfHeight - y2 );
-
-				double xEn0 = darXdeYenRecta( x1, y1t, x2, y2t, 0 );
-				double yEn0 = halfHeight;
-
-				graphics2d.setColor( positive == null ? UtilidadesLineChart.Colors.GREEN : positive );
-				graphics2d.setStroke( new BasicStroke( graphStroke ) );
-
-				Line2D.Double linea0 = new Line2D.Double( x1, y1, xEn0, yEn0 );
-				graphics2d.draw( linea0 );
-
-				graphics2d.setColor( negative == null ? UtilidadesLineChart.Colors.PINK : negative );
-				graphics2d.setStroke( new BasicStroke( graphStroke ) );
-
-				Line2D.Double linea1 = new Line2D.Double( xEn0, yEn0, x2, y2 );
-				graphics2d.draw( linea1 );
+				int finGrupo = Math.min( i + paso, cantidad );
+				int minimo = datos.darPosicionMinimo( i, finGrupo );
+				int maximo = datos.darPosicionMaximo( i, finGrupo );
+				int primero = Math.min( minimo, maximo );
+				int segundo = Math.max( minimo, maximo );
+
+				pintarTramo( graphics2d, ( ( primero * width ) / cantidadEje ) + xIni, darY( datos.darValor( primero ), halfHeight, maxValue ), halfHeight, trazo );
+				if( segundo != primero )
+				{
+					pintarTramo( graphics2d, ( ( segundo * width ) / cantidadEje ) + xIni, darY( datos.darValor( segundo ), halfHeight, maxValue ), halfHeight, trazo );
+				}
 			}
-			else if( ( y1 > halfHeight ) && ( y2 < halfHeight ) ) // 1: Por debajo. 2: Por encima
+			else
 			{
-				double y1t = ( halfHeight - y1 );
-				double y2t = ( halfHeight - y2 );
-
-				double xEn0 = darXdeYenRecta( x1, y1t, x2, y2t, 0 );
-				double yEn0 = halfHeight;
-
-				graphics2d.setColor( negative == null ? UtilidadesLineChart.Colors.PINK : negative );
-				graphics2d.setStroke( new BasicStroke( graphStroke ) );
+				final double valor = datos.darValor( i );
+				double x2 = ( ( i * width ) / cantidadEje ) + xIni;
+				double y2 = darY( valor, halfHeight, maxValue );
+				pintarTramo( graphics2d, x2, y2, halfHeight, trazo );
 
-				Line2D.Double linea0 = new Line2D.Double( x1, y1, xEn0, yEn0 );
-				graphics2d.draw( linea0 );
-
-				graphics2d.setColor( positive == null ? UtilidadesLineChart.Colors.GREEN : positive );
-				graphics2d.setStroke( new BasicStroke( graphStroke ) );
-
-				Line2D.Double linea1 = new Line2D.Double( xEn0, yEn0, x2, y2 );
-				graphics2d.draw( linea1 );
-			}
-			else // DEFAULT - ERROR
-			{
-				graphics2d.setColor( UtilidadesLineChart.Colors.AZUL_ED );
-				graphics2d.setStroke( new BasicStroke( graphStroke ) );
-				Line2D.Double linea = new Line2D.Double( x1, y1, x2, y2 );
-				graphics2d.draw( linea );
+				if( !reducida )
+				{
+					String textX = datos.darEtiqueta( i );
+					pintarPuntosY( graphics2d, y2, valor );
+					pintarPuntosX( graphics2d, halfHeight, x2, textX != null ? textX : String.valueOf( i + 1 ) );
+
+					if( dots && ( i % saltoDots ) == 0 ) // Se omiten los puntos que quedarían sobrepuestos
+					{
+						pintarDot( graphics2d, x2, y2, valor, textX );
+					}
+				}
 			}
-			pintarPuntosY( graphics2d, y2, dato.valor );
-			pintarPuntosX( graphics2d, halfHeight, x2, dato.textX != null ? dato.textX : String.valueOf( contador ) );
-			pintarDot( graphics2d, x2, y2, dato );
-
-			lastPoint = new Point( ( int ) x2, ( int ) y2 );
 		}
 	}
 
@@ -505,20 +1085,25 @@ public class LineChart extends JPanel
 	 * @param graphics2d Gráfica en la que se pintará
 	 * @param x Coordenada en X del punto
 	 * @param y Coordenada en Y del punto
-	 * @param dato Dato correspondiente al punto
+	 * @param valor Valor del dato correspondiente al punto
+	 * @param textX Etiqueta del dato correspondiente al punto
 	 */
-	private void pintarDot( Graphics2D graphics2d, double x, double y, Dato dato )
+	private void pintarDot( Graphics2D graphics2d, double x, double y, double valor, String textX )
 	{
-		Color bg = dato.valor >= 0 ? positive == null ? UtilidadesLineChart.Colors.GREEN : positive : negative == null ? UtilidadesLineChart.Colors.PINK : negative;
-		Color fg = dato.valor >= 0 ? background == null ? UtilidadesLineChart.Colors.GRIS : background : foreground == null ? UtilidadesLineChart.Colors.BLANCO : foreground;
+		Color bg = valor >= 0 ? positive == null ? UtilidadesLineChart.Colors.GREEN : positive : negative == null ? UtilidadesLineChart.Colors.PINK : negative;
+		Color fg = valor >= 0 ? background == null ? UtilidadesLineChart.Colors.GRIS : background : foreground == null ? UtilidadesLineChart.Colors.BLANCO : foreground;
 
-		graphics2d.setColor( bg );
-		Ellipse2D.Double dot = new Ellipse2D.Double( x - 5, y - 5, 10, 10 );
-		DotMouseMotionListener dotListener = new DotMouseMotionListener( dot, ( muestraNombrePopup ? "<html><center>" + dato.textX + "<br>" : "" ) + ( formatoMoneda ? UtilidadesLineChart.darFormatoNúmeroValor( String.valueOf( dato.valor ) ) : String.valueOf( dato.valor ) ) );
-		dotListener.setColors( bg, fg );
-		listeners.add( dotListener );
-		addMouseMotionListener( dotListener );
-		graphics2d.fill( dot );
+		Ellipse2D.Double dot = new Ellipse2D.Double( x - ( diametroDot / 2 ), y - ( diametroDot / 2 ), diametroDot, diametroDot );
+		if( estaEnClip( graphics2d, dot ) )
+		{
+			DotMouseMotionListener dotListener = new DotMouseMotionListener( dot, ( muestraNombrePopup ? "<html><center>" + textX + "<br>" : "" ) + ( formatoMoneda ? UtilidadesLineChart.darFormatoNúmeroValor( String.valueOf( valor ) ) : String.valueOf( valor ) ) );
+			dotListener.setColors( bg, fg );
+			listeners.add( dotListener );
+			addMouseMotionListener( dotListener );
+		}
+		// El sprite se pinta escalado al tamaño del punto, por lo que en pantallas HiDPI se usa a la resolución del dispositivo
+		double escala = Math.max( 1, graphics2d.getTransform( ).getScaleX( ) );
+		graphics2d.drawImage( darSprite( bg, escala ), ( int ) Math.round( x ) - ( diametroDot / 2 ), ( int ) Math.round( y ) - ( diametroDot / 2 ), diametroDot, diametroDot, null );
 	}
 
 	/**
@@ -564,13 +1149,9 @@ public class LineChart extends JPanel
 	private void pintarPromedio( Graphics2D graphics2d, final double width, final double height, double maxValue )
 	{
 		double prom = 0;
-		for( Dato dato : datos )
-		{
-			prom += dato.valor;
-		}
-		if( datos.size( ) != 0 )
+		if( datos.darCantidad( ) != 0 )
 		{
-			prom /= datos.size( );
+			prom = datos.darSuma( ) / datos.darCantidad( );
 		}
 
 		double halfHeight = positivoYnegativo ? height / 2 : height;
@@ -589,10 +1170,13 @@ public class LineChart extends JPanel
 		Color bg = color;
 		Color fg = Colors.BLANCO;
 
-		DotMouseMotionListener dotMouseMotionListener = new DotMouseMotionListener( rectangle, "<html><center>Promedio <br>" + ( formatoMoneda ? UtilidadesLineChart.darFormatoNúmeroValor( String.valueOf( prom ) ) : String.valueOf( UtilidadesLineChart.round( prom, 2 ) ) ) );
-		dotMouseMotionListener.setColors( bg, fg );
-		listeners.add( dotMouseMotionListener );
-		addMouseMotionListener( dotMouseMotionListener );
+		if( estaEnClip( graphics2d, rectangle ) )
+		{
+			DotMouseMotionListener dotMouseMotionListener = new DotMouseMotionListener( rectangle, "<html><center>Promedio <br>" + ( formatoMoneda ? UtilidadesLineChart.darFormatoNúmeroValor( String.valueOf( prom ) ) : String.valueOf( UtilidadesLineChart.round( prom, 2 ) ) ) );
+			dotMouseMotionListener.setColors( bg, fg );
+			listeners.add( dotMouseMotionListener );
+			addMouseMotionListener( dotMouseMotionListener );
+		}
 
 		graphics2d.fill( rectangle );
 
@@ -696,6 +1280,185 @@ public class LineChart extends JPanel
 		graphics2d.drawString( texto, ( int ) x2 - wString, ( int ) y + hString );
 	}
 
+	/**
+	 * Pinta las series adicionales de la gráfica.<br>
+	 * Cada serie se proyecta a coordenadas de pantalla en paralelo, y luego se pintan en orden como una linea de su color
+	 * 
+	 * @param graphics2d Gráfica en la que se pintará
+	 * @param width Ancho de la gráfica
+	 * @param height Alto de la gráfica
+	 * @param reducida True si se pinta en calidad reducida: linea delgada y con menos datos
+	 */
+	private void pintarSeries( Graphics2D graphics2d, final double width, final double height, final boolean reducida )
+	{
+		if( series.isEmpty( ) )
+		{
+			return;
+		}
+		final double maxValue = darMaxValue( );
+		final int cantidadEje = darCantidadEje( );
+		final double halfHeight = positivoYnegativo ? height / 2 : height;
+		// Los datos se agrupan por pixel (de a 2 pixeles en calidad reducida) y de cada grupo se proyectan su mínimo y su máximo, en el orden en que
+		// aparecen, para que los picos no se pierdan
+		final int paso = Math.max( 1, ( int ) ( cantidadEje / ( reducida ? width / 2 : width ) ) );
+
+		BasicStroke trazo = reducida ? trazoReducido : trazoCompleto;
+
+		// Solo se proyectan los datos dentro del clip, con un margen del alcance del trazo (las uniones en punta llegan hasta miterLimit * ancho / 2
+		// del punto) y un grupo más a cada lado, para que los tramos que entran al clip tengan las mismas uniones que en un pintado completo
+		int inicio = 0;
+		int fin = cantidadEje;
+		Rectangle clip = graphics2d.getClipBounds( );
+		if( clip != null )
+		{
+			int margen = ( int ) Math.ceil( ( trazo.getMiterLimit( ) * trazo.getLineWidth( ) ) / 2 ) + 1;
+			inicio = Math.max( 0, ( int ) ( ( ( clip.x - margen - xIni ) * cantidadEje ) / width ) - paso );
+			inicio -= inicio % paso;
+			fin = Math.min( cantidadEje, ( int ) Math.ceil( ( ( clip.x + clip.width + margen - xIni ) * cantidadEje ) / width ) + paso + 1 );
+		}
+		final int desde = inicio;
+		final int hasta = fin;
+
+		series.values( ).parallelStream( ).forEach( serie -> {
+			int cantidad = serie.datos.darCantidad( );
+			int limite = Math.min( hasta, cantidad );
+			// Cada grupo aporta hasta dos puntos: su mínimo y su máximo
+			int n = Math.max( 0, ( ( limite - desde ) + paso - 1 ) / paso ) * ( paso > 1 ? 2 : 1 );
+			if( serie.xs.length < n )
+			{
+				serie.xs = new int[ n ];
+				serie.ys = new int[ n ];
+			}
+			int k = 0;
+			for( int i = desde; i < limite; i += paso )
+			{
+				int primero = i;
+				int segundo = i;
+				if( paso > 1 )
+				{
+					int finGrupo = Math.min( i + paso, cantidad );
+					int minimo = serie.datos.darPosicionMinimo( i, finGrupo );
+					int maximo = serie.datos.darPosicionMaximo( i, finGrupo );
+					primero = Math.min( minimo, maximo );
+					segundo = Math.max( minimo, maximo );
+				}
+				serie.xs[ k ] = ( int ) ( ( ( primero * width ) / cantidadEje ) + xIni );
+				serie.ys[ k ] = ( int ) darY( serie.datos.darValor( primero ), halfHeight, maxValue );
+				k++;
+				if( segundo != primero )
+				{
+					serie.xs[ k ] = ( int ) ( ( ( segundo * width ) / cantidadEje ) + xIni );
+					serie.ys[ k ] = ( int ) darY( serie.datos.darValor( segundo ), halfHeight, maxValue );
+					k++;
+				}
+			}
+			serie.puntos = k;
+		} );
+
+		graphics2d.setStroke( trazo );
+		for( Serie serie : series.values( ) )
+		{
+			graphics2d.setColor( serie.color );
+			graphics2d.drawPolyline( serie.xs, serie.ys, serie.puntos );
+		}
+	}
+
+	/**
+	 * Pinta el tramo de la linea de datos desde el último punto pintado hasta un punto, con el color del lado del eje en el que queda cada parte
+	 * 
+	 * @param graphics2d Gráfica en la que se pintará
+	 * @param x2 Coordenada en X del punto
+	 * @param y2 Coordenada en Y del punto
+	 * @param halfHeight Coordenada en Y del eje X
+	 * @param trazo Trazo de la linea
+	 */
+	private void pintarTramo( Graphics2D graphics2d, double x2, double y2, double halfHeight, BasicStroke trazo )
+	{
+		final double x1 = lastPoint.getX( );
+		final double y1 = lastPoint.getY( );
+
+		if( ( y1 <= halfHeight ) && ( y2 <= halfHeight ) ) // Ambos por Encima del eje
+		{
+			graphics2d.setColor( positive == null ? UtilidadesLineChart.Colors.GREEN : positive );
+			graphics2d.setStroke( trazo );
+			Line2D.Double linea = new Line2D.Double( x1, y1, x2, y2 );
+			graphics2d.draw( linea );
+		}
+		else if( ( y1 >= halfHeight ) && ( y2 >= halfHeight ) ) // Ambos por Debajo del eje
+		{
+			graphics2d.setColor( negative == null ? UtilidadesLineChart.Colors.PINK : negative );
+			graphics2d.setStroke( trazo );
+			Line2D.Double linea = new Line2D.Double( x1, y1, x2, y2 );
+			graphics2d.draw( linea );
+		}
+		else if( ( y1 < halfHeight ) && ( y2 > halfHeight ) ) // 1: Por encima. 2: Por debajo
+		{
+			double y1t = ( halfHeight - y1 );
+			double y2t = ( halfHeight - y2 );
+
+			double xEn0 = darXdeYenRecta( x1, y1t, x2, y2t, 0 );
+			double yEn0 = halfHeight;
+
+			graphics2d.setColor( positive == null ? UtilidadesLineChart.Colors.GREEN : positive );
+			graphics2d.setStroke( trazo );
+
+			Line2D.Double linea0 = new Line2D.Double( x1, y1, xEn0, yEn0 );
+			graphics2d.draw( linea0 );
+
+			graphics2d.setColor( negative == null ? UtilidadesLineChart.Colors.PINK : negative );
+			graphics2d.setStroke( trazo );
+
+			Line2D.Double linea1 = new Line2D.Double( xEn0, yEn0, x2, y2 );
+			graphics2d.draw( linea1 );
+		}
+		else if( ( y1 > halfHeight ) && ( y2 < halfHeight ) ) // 1: Por debajo. 2: Por encima
+		{
+			double y1t = ( halfHeight - y1 );
+			double y2t = ( halfHeight - y2 );
+
+			double xEn0 = darXdeYenRecta( x1, y1t, x2, y2t, 0 );
+			double yEn0 = halfHeight;
+
+			graphics2d.setColor( negative == null ? UtilidadesLineChart.Colors.PINK : negative );
+			graphics2d.setStroke( trazo );
+
+			Line2D.Double linea0 = new Line2D.Double( x1, y1, xEn0, yEn0 );
+			graphics2d.draw( linea0 );
+
+			graphics2d.setColor( positive == null ? UtilidadesLineChart.Colors.GREEN : positive );
+			graphics2d.setStroke( trazo );
+
+			Line2D.Double linea1 = new Line2D.Double( xEn0, yEn0, x2, y2 );
+			graphics2d.draw( linea1 );
+		}
+		else // DEFAULT - ERROR
+		{
+			graphics2d.setColor( UtilidadesLineChart.Colors.AZUL_ED );
+			graphics2d.setStroke( trazo );
+			Line2D.Double linea = new Line2D.Double( x1, y1, x2, y2 );
+			graphics2d.draw( linea );
+		}
+
+		lastPoint = new Point( ( int ) x2, ( int ) y2 );
+	}
+
+	/**
+	 * Reinicia el timer que devuelve la gráfica a calidad completa al quedar en reposo
+	 */
+	private void reiniciarTimerReposo( )
+	{
+		if( timerReposo == null )
+		{
+			if( reposoListener == null )
+			{
+				reposoListener = new ReposoListener( );
+			}
+			timerReposo = new Timer( tiempoReposo, reposoListener );
+			timerReposo.setRepeats( false );
+		}
+		timerReposo.restart( );
+	}
+
 	/**
 	 * Remueve todos los listeners
 	 */
@@ -707,6 +1470,72 @@ public class LineChart extends JPanel
 		}
 	}
 
+	/**
+	 * Remueve los listeners de los puntos de interés que están dentro de un área
+	 * 
+	 * @param area Área de la cual se remueven los listeners, o null para removerlos todos
+	 */
+	private void removeListeners( Rectangle area )
+	{
+		Iterator<DotMouseMotionListener> iterator = listeners.iterator( );
+		while( iterator.hasNext( ) )
+		{
+			DotMouseMotionListener dotMouseMotionListener = iterator.next( );
+			if( area == null || dotMouseMotionListener.shape.intersects( area ) )
+			{
+				dotMouseMotionListener.hidePopup( );
+				removeMouseMotionListener( dotMouseMotionListener );
+				iterator.remove( );
+			}
+		}
+	}
+
+	/**
+	 * Define si los datos se guardan comprimidos en memoria, para gráficas con muchos datos durante mucho tiempo.<br>
+	 * Los datos se guardan en bloques con tiempos en delta de deltas y valores codificados con XOR, y al pintar solo se decodifican los bloques visibles.
+	 * Los datos existentes se pasan al nuevo almacenamiento
+	 * 
+	 * @param almacenamientoComprimido True para comprimir los datos, False para guardarlos en arreglos
+	 */
+	public void setAlmacenamientoComprimido( boolean almacenamientoComprimido )
+	{
+		if( this.almacenamientoComprimido == almacenamientoComprimido )
+		{
+			return;
+		}
+		this.almacenamientoComprimido = almacenamientoComprimido;
+
+		datos = convertirSerie( datos );
+		for( Serie serie : series.values( ) )
+		{
+			serie.datos = convertirSerie( serie.datos );
+		}
+	}
+
+	@Override
+	public void setBackground( Color bg )
+	{
+		super.setBackground( bg );
+		cacheValida = false;
+	}
+
+	/**
+	 * Define si la gráfica reduce su calidad (sin antialiasing, linea delgada, sin puntos ni etiquetas y con menos datos) mientras hay interacción o el tiempo de pintado excede el presupuesto por frame.<br>
+	 * La calidad completa vuelve cuando la gráfica queda en reposo
+	 * 
+	 * @param calidadAdaptativa True para activar la calidad adaptativa, False de lo contrario
+	 * @see #setPresupuestoFrame(long)
+	 */
+	public void setCalidadAdaptativa( boolean calidadAdaptativa )
+	{
+		this.calidadAdaptativa = calidadAdaptativa;
+		if( !calidadAdaptativa )
+		{
+			calidadReducida = false;
+		}
+		cacheValida = false;
+	}
+
 	/**
 	 * Configura los colores Positivo, Negativo, Background, Foreground
 	 * 
@@ -721,10 +1550,30 @@ public class LineChart extends JPanel
 		negative = neg;
 		background = bg;
 		foreground = fg;
+		cacheValida = false;
 
 		setBackground( bg );
 	}
 
+	/**
+	 * Define la densidad máxima de datos para la cual se pintan los puntos de interés.<br>
+	 * Si hay más datos por pixel en x no se pintan los puntos. Por debajo de ese límite, los puntos que quedarían sobrepuestos con el anterior se omiten
+	 * 
+	 * @param densidadMaximaDots Cantidad máxima de datos por pixel en x
+	 */
+	public void setDensidadMaximaDots( double densidadMaximaDots )
+	{
+		this.densidadMaximaDots = densidadMaximaDots;
+		cacheValida = false;
+	}
+
+	@Override
+	public void setFont( Font font )
+	{
+		super.setFont( font );
+		cacheValida = false;
+	}
+
 	/**
 	 * Define si se pinta la linea de promedio
 	 * 
@@ -733,6 +1582,7 @@ public class LineChart extends JPanel
 	public void setLineaPromedio( boolean lineaPromedio )
 	{
 		this.lineaPromedio = lineaPromedio;
+		cacheValida = false;
 	}
 
 	/**
@@ -745,6 +1595,16 @@ public class LineChart extends JPanel
 		this.muestraNombrePopup = muestraNombrePopup;
 	}
 
+	/**
+	 * Define el presupuesto de tiempo por frame para la calidad adaptativa
+	 * 
+	 * @param presupuestoFrame Tiempo máximo en milisegundos para pintar un frame en calidad completa
+	 */
+	public void setPresupuestoFrame( long presupuestoFrame )
+	{
+		this.presupuestoFrame = presupuestoFrame;
+	}
+
 	/**
 	 * Define si se muestra los cuadrantes positivos y negativos de la gráfica
 	 * 
@@ -753,6 +1613,18 @@ public class LineChart extends JPanel
 	public void setPositivoYnegativo( boolean positivoYnegativo )
 	{
 		this.positivoYnegativo = positivoYnegativo;
+		cacheValida = false;
+	}
+
+	/**
+	 * Define si la gráfica se pinta en una imagen en caché, para que las capas superpuestas (ver {@link CrosshairLayerUI}) puedan repintar regiones pequeñas sin volver a pintar la gráfica
+	 * 
+	 * @param usarCache True para usar la caché, False de lo contrario
+	 */
+	void setUsarCache( boolean usarCache )
+	{
+		this.usarCache = usarCache;
+		cache = null;
 	}
 
 	/**
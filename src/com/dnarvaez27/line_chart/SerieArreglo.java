@@ -0,0 +1,119 @@
+package com.dnarvaez27.line_chart;
+
+import java.util.Arrays;
+
+/**
+ * Serie de datos guardada en arreglos primitivos
+ *
+ * @author d.narvaez11
+ */
+class SerieArreglo extends SerieLineChart
+{
+	/**
+	 * Capacidad inicial de los arreglos
+	 */
+	private static final int capacidadInicial = 16;
+
+	/**
+	 * Etiquetas de los datos. Es null mientras ningún dato tenga etiqueta
+	 */
+	private String[ ] etiquetas;
+
+	/**
+	 * Tiempos (en milisegundos) de los datos
+	 */
+	private long[ ] tiempos;
+
+	/**
+	 * Valores de los datos
+	 */
+	private double[ ] valores;
+
+	/**
+	 * Constructor de una serie vacía
+	 */
+	SerieArreglo( )
+	{
+		valores = new double[ capacidadInicial ];
+		tiempos = new long[ capacidadInicial ];
+	}
+
+	/**
+	 * Reemplaza el contenido de la serie por los arreglos dados, sin copiarlos.<br>
+	 * Los agregados se recalculan en una sola pasada
+	 *
+	 * @param valores Valores de los datos
+	 * @param tiempos Tiempos de los datos
+	 * @param etiquetas Etiquetas de los datos. Puede ser null si ningún dato tiene etiqueta
+	 * @param cantidad Cantidad de datos válidos en los arreglos
+	 */
+	void cargar( double[ ] valores, long[ ] tiempos, String[ ] etiquetas, int cantidad )
+	{
+		this.valores = valores.length == 0 ? new double[ capacidadInicial ] : valores;
+		this.tiempos = tiempos.length == 0 ? new long[ capacidadInicial ] : tiempos;
+		this.etiquetas = etiquetas;
+
+		double maximo = Double.NEGATIVE_INFINITY;
+		double minimo = Double.POSITIVE_INFINITY;
+		double suma = 0;
+		for( int i = 0; i < cantidad; i++ )
+		{
+			double valor = valores[ i ];
+			maximo = Math.max( maximo, valor );
+			minimo = Math.min( minimo, valor );
+			suma += valor;
+		}
+		asignarAgregados( cantidad, minimo, maximo, suma );
+	}
+
+	@Override
+	void copiar( int desde, int n, double[ ] valores, long[ ] tiempos )
+	{
+		System.arraycopy( this.valores, desde, valores, 0, n );
+		System.arraycopy( this.tiempos, desde, tiempos, 0, n );
+	}
+
+	@Override
+	String darEtiqueta( int i )
+	{
+		return etiquetas == null ? null : etiquetas[ i ];
+	}
+
+	@Override
+	long darTiempo( int i )
+	{
+		return tiempos[ i ];
+	}
+
+	@Override
+	double darValor( int i )
+	{
+		return valores[ i ];
+	}
+
+	@Override
+	void guardar( int posicion, long tiempo, double valor, String etiqueta )
+	{
+		if( posicion == valores.length )
+		{
+			int capacidad = posicion * 2;
+			valores = Arrays.copyOf( valores, capacidad );
+			tiempos = Arrays.copyOf( tiempos, capacidad );
+			if( etiquetas != null )
+			{
+				etiquetas = Arrays.copyOf( etiquetas, capacidad );
+			}
+		}
+		if( etiqueta != null && etiquetas == null )
+		{
+			etiquetas = new String[ valores.length ];
+		}
+
+		valores[ posicion ] = valor;
+		tiempos[ posicion ] = tiempo;
+		if( etiquetas != null )
+		{
+			etiquetas[ posicion ] = etiqueta;
+		}
+	}
+}
@@ -0,0 +1,536 @@
+package com.dnarvaez27.line_chart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Serie de datos comprimida en memoria, para gráficas con muchos datos durante mucho tiempo.<br>
+ * Los datos se agrupan en bloques de tamaño fijo. Cada bloque guarda en su encabezado la cantidad, el mínimo y el máximo (con sus posiciones), y sus datos comprimidos:
+ * los tiempos con delta de deltas y los valores con XOR respecto al valor anterior.<br>
+ * Solo se decodifican los bloques que se consultan (el último decodificado queda en caché), y los extremos de un rango se buscan en los encabezados sin decodificar.<br>
+ * Cada bloque se decodifica en arreglos nuevos que no se modifican después, por lo que las consultas se pueden hacer desde varios hilos a la vez
+ * (por ejemplo guardar un snapshot mientras se pinta). Como en {@link SerieArreglo}, agregar datos mientras se consulta requiere sincronización externa
+ *
+ * @author d.narvaez11
+ */
+class SerieComprimida extends SerieLineChart
+{
+	/**
+	 * Modela un bloque comprimido de datos
+	 *
+	 * @author d.narvaez11
+	 */
+	private static class Bloque
+	{
+		/**
+		 * Bits de los datos comprimidos
+		 */
+		private final long[ ] bits;
+
+		/**
+		 * Valor máximo del bloque
+		 */
+		private final double maximo;
+
+		/**
+		 * Valor mínimo del bloque
+		 */
+		private final double minimo;
+
+		/**
+		 * Posición dentro del bloque de la primera aparición del valor máximo
+		 */
+		private final int posicionMaximo;
+
+		/**
+		 * Posición dentro del bloque de la primera aparición del valor mínimo
+		 */
+		private final int posicionMinimo;
+
+		/**
+		 * Constructor de un Bloque
+		 *
+		 * @param bits Bits de los datos comprimidos
+		 * @param minimo Valor mínimo del bloque
+		 * @param posicionMinimo Posición dentro del bloque del valor mínimo
+		 * @param maximo Valor máximo del bloque
+		 * @param posicionMaximo Posición dentro del bloque del valor máximo
+		 */
+		public Bloque( long[ ] bits, double minimo, int posicionMinimo, double maximo, int posicionMaximo )
+		{
+			this.bits = bits;
+			this.minimo = minimo;
+			this.posicionMinimo = posicionMinimo;
+			this.maximo = maximo;
+			this.posicionMaximo = posicionMaximo;
+		}
+	}
+
+	/**
+	 * Modela un bloque decodificado. No se modifica después de creado, para poder compartirlo entre hilos
+	 *
+	 * @author d.narvaez11
+	 */
+	private static class BloqueDecodificado
+	{
+		/**
+		 * Posición del bloque
+		 */
+		private final int posicion;
+
+		/**
+		 * Tiempos del bloque
+		 */
+		private final long[ ] tiempos;
+
+		/**
+		 * Valores del bloque
+		 */
+		private final double[ ] valores;
+
+		/**
+		 * Constructor de un BloqueDecodificado
+		 *
+		 * @param posicion Posición del bloque
+		 * @param tiempos Tiempos del bloque
+		 * @param valores Valores del bloque
+		 */
+		public BloqueDecodificado( int posicion, long[ ] tiempos, double[ ] valores )
+		{
+			this.posicion = posicion;
+			this.tiempos = tiempos;
+			this.valores = valores;
+		}
+	}
+
+	/**
+	 * Modela un flujo de bits sobre un arreglo de longs, para escribir o leer
+	 *
+	 * @author d.narvaez11
+	 */
+	private static class Bits
+	{
+		/**
+		 * Palabras del flujo
+		 */
+		private long[ ] palabras;
+
+		/**
+		 * Posición actual en bits
+		 */
+		private int posicion;
+
+		/**
+		 * Constructor de un flujo de bits
+		 *
+		 * @param palabras Palabras del flujo
+		 */
+		public Bits( long[ ] palabras )
+		{
+			this.palabras = palabras;
+		}
+
+		/**
+		 * Lee n bits como un número sin signo
+		 *
+		 * @param n Cantidad de bits (1 a 64)
+		 * @return Bits leídos
+		 */
+		public long leer( int n )
+		{
+			int palabra = posicion >>> 6;
+			int libres = 64 - ( posicion & 63 );
+			long valor;
+			if( n <= libres )
+			{
+				valor = palabras[ palabra ] >>> ( libres - n );
+			}
+			else
+			{
+				int resto = n - libres;
+				valor = ( palabras[ palabra ] << resto ) | ( palabras[ palabra + 1 ] >>> ( 64 - resto ) );
+			}
+			posicion += n;
+			return n == 64 ? valor : valor & ( ( 1L << n ) - 1 );
+		}
+
+		/**
+		 * Lee n bits como un número con signo en complemento a dos
+		 *
+		 * @param n Cantidad de bits (1 a 64)
+		 * @return Número leído
+		 */
+		public long leerConSigno( int n )
+		{
+			long valor = leer( n );
+			return n == 64 ? valor : ( valor << ( 64 - n ) ) >> ( 64 - n );
+		}
+
+		/**
+		 * Escribe los n bits menos significativos de un valor
+		 *
+		 * @param valor Valor a escribir
+		 * @param n Cantidad de bits (0 a 64)
+		 */
+		public void escribir( long valor, int n )
+		{
+			if( n == 0 )
+			{
+				return;
+			}
+			int palabra = posicion >>> 6;
+			if( palabra + 1 >= palabras.length )
+			{
+				palabras = Arrays.copyOf( palabras, palabras.length * 2 );
+			}
+			valor = n == 64 ? valor : valor & ( ( 1L << n ) - 1 );
+
+			int libres = 64 - ( posicion & 63 );
+			if( n <= libres )
+			{
+				palabras[ palabra ] |= valor << ( libres - n );
+			}
+			else
+			{
+				int resto = n - libres;
+				palabras[ palabra ] |= valor >>> resto;
+				palabras[ palabra + 1 ] |= valor << ( 64 - resto );
+			}
+			posicion += n;
+		}
+
+		/**
+		 * @return Palabras escritas, sin espacio sobrante
+		 */
+		public long[ ] darPalabras( )
+		{
+			return Arrays.copyOf( palabras, ( posicion + 63 ) >>> 6 );
+		}
+	}
+
+	/**
+	 * Cantidad de datos por bloque
+	 */
+	static final int tamañoBloque = 1024;
+
+	/**
+	 * Bloques completos y comprimidos
+	 */
+	private final ArrayList<Bloque> bloques;
+
+	/**
+	 * Último bloque decodificado, en caché. Es null si no hay ninguno
+	 */
+	private volatile BloqueDecodificado decodificado;
+
+	/**
+	 * Etiquetas de los datos que tienen etiqueta, por posición
+	 */
+	private final HashMap<Integer, String> etiquetas;
+
+	/**
+	 * Tiempos del bloque abierto (aún sin comprimir)
+	 */
+	private final long[ ] tiemposAbiertos;
+
+	/**
+	 * Valores del bloque abierto (aún sin comprimir)
+	 */
+	private final double[ ] valoresAbiertos;
+
+	/**
+	 * Constructor de una serie comprimida vacía
+	 */
+	SerieComprimida( )
+	{
+		bloques = new ArrayList<>( );
+		etiquetas = new HashMap<>( );
+		tiemposAbiertos = new long[ tamañoBloque ];
+		valoresAbiertos = new double[ tamañoBloque ];
+	}
+
+	/**
+	 * Comprime el bloque abierto y lo agrega a los bloques completos
+	 */
+	private void comprimirBloque( )
+	{
+		Bits bits = new Bits( new long[ 64 ] );
+		double minimo = valoresAbiertos[ 0 ];
+		double maximo = valoresAbiertos[ 0 ];
+		int posicionMinimo = 0;
+		int posicionMaximo = 0;
+
+		bits.escribir( tiemposAbiertos[ 0 ], 64 );
+		bits.escribir( Double.doubleToRawLongBits( valoresAbiertos[ 0 ] ), 64 );
+
+		long deltaAnterior = 0;
+		long anterior = Double.doubleToRawLongBits( valoresAbiertos[ 0 ] );
+		int cerosIniciales = -1;
+		int cerosFinales = 0;
+
+		for( int i = 1; i < tamañoBloque; i++ )
+		{
+			if( valoresAbiertos[ i ] < minimo )
+			{
+				minimo = valoresAbiertos[ i ];
+				posicionMinimo = i;
+			}
+			if( valoresAbiertos[ i ] > maximo )
+			{
+				maximo = valoresAbiertos[ i ];
+				posicionMaximo = i;
+			}
+
+			// Tiempo: delta de deltas
+			long delta = tiemposAbiertos[ i ] - tiemposAbiertos[ i - 1 ];
+			long dod = delta - deltaAnterior;
+			deltaAnterior = delta;
+			if( dod == 0 )
+			{
+				bits.escribir( 0, 1 );
+			}
+			else if( dod >= -64 && dod <= 63 )
+			{
+				bits.escribir( 0b10, 2 );
+				bits.escribir( dod, 7 );
+			}
+			else if( dod >= -256 && dod <= 255 )
+			{
+				bits.escribir( 0b110, 3 );
+				bits.escribir( dod, 9 );
+			}
+			else if( dod >= -2048 && dod <= 2047 )
+			{
+				bits.escribir( 0b1110, 4 );
+				bits.escribir( dod, 12 );
+			}
+			else
+			{
+				bits.escribir( 0b1111, 4 );
+				bits.escribir( dod, 64 );
+			}
+
+			// Valor: XOR con el anterior
+			long actual = Double.doubleToRawLongBits( valoresAbiertos[ i ] );
+			long xor = actual ^ anterior;
+			anterior = actual;
+			if( xor == 0 )
+			{
+				bits.escribir( 0, 1 );
+				continue;
+			}
+			bits.escribir( 1, 1 );
+
+			int iniciales = Math.min( Long.numberOfLeadingZeros( xor ), 31 );
+			int finales = Long.numberOfTrailingZeros( xor );
+			if( cerosIniciales >= 0 && iniciales >= cerosIniciales && finales >= cerosFinales ) // Cabe en la ventana anterior
+			{
+				bits.escribir( 0, 1 );
+				bits.escribir( xor >>> cerosFinales, 64 - cerosIniciales - cerosFinales );
+			}
+			else
+			{
+				int significativos = 64 - iniciales - finales;
+				bits.escribir( 1, 1 );
+				bits.escribir( iniciales, 5 );
+				bits.escribir( significativos - 1, 6 );
+				bits.escribir( xor >>> finales, significativos );
+				cerosIniciales = iniciales;
+				cerosFinales = finales;
+			}
+		}
+
+		bloques.add( new Bloque( bits.darPalabras( ), minimo, posicionMinimo, maximo, posicionMaximo ) );
+	}
+
+	/**
+	 * Retorna un bloque completo decodificado, decodificándolo y dejándolo en la caché si no es el que ya está en ella
+	 *
+	 * @param b Posición del bloque
+	 * @return Bloque decodificado
+	 */
+	private BloqueDecodificado decodificarBloque( int b )
+	{
+		BloqueDecodificado actual = decodificado;
+		if( actual != null && actual.posicion == b )
+		{
+			return actual;
+		}
+		Bits bits = new Bits( bloques.get( b ).bits );
+		long[ ] tiemposDecodificados = new long[ tamañoBloque ];
+		double[ ] valoresDecodificados = new double[ tamañoBloque ];
+
+		long tiempo = bits.leer( 64 );
+		long anterior = bits.leer( 64 );
+		tiemposDecodificados[ 0 ] = tiempo;
+		valoresDecodificados[ 0 ] = Double.longBitsToDouble( anterior );
+
+		long delta = 0;
+		int cerosIniciales = 0;
+		int cerosFinales = 0;
+
+		for( int i = 1; i < tamañoBloque; i++ )
+		{
+			if( bits.leer( 1 ) != 0 )
+			{
+				int prefijo = 1;
+				while( prefijo < 4 && bits.leer( 1 ) != 0 )
+				{
+					prefijo++;
+				}
+				if( prefijo == 1 )
+				{
+					delta += bits.leerConSigno( 7 );
+				}
+				else if( prefijo == 2 )
+				{
+					delta += bits.leerConSigno( 9 );
+				}
+				else if( prefijo == 3 )
+				{
+					delta += bits.leerConSigno( 12 );
+				}
+				else
+				{
+					delta += bits.leer( 64 );
+				}
+			}
+			tiempo += delta;
+			tiemposDecodificados[ i ] = tiempo;
+
+			if( bits.leer( 1 ) != 0 )
+			{
+				if( bits.leer( 1 ) != 0 )
+				{
+					cerosIniciales = ( int ) bits.leer( 5 );
+					int significativos = ( int ) bits.leer( 6 ) + 1;
+					cerosFinales = 64 - cerosIniciales - significativos;
+				}
+				anterior ^= bits.leer( 64 - cerosIniciales - cerosFinales ) << cerosFinales;
+			}
+			valoresDecodificados[ i ] = Double.longBitsToDouble( anterior );
+		}
+		actual = new BloqueDecodificado( b, tiemposDecodificados, valoresDecodificados );
+		decodificado = actual;
+		return actual;
+	}
+
+	@Override
+	String darEtiqueta( int i )
+	{
+		return etiquetas.isEmpty( ) ? null : etiquetas.get( i );
+	}
+
+	@Override
+	int darPosicionMaximo( int desde, int hasta )
+	{
+		int posicion = -1;
+		double max = Double.NEGATIVE_INFINITY;
+		int i = desde;
+		while( i < hasta )
+		{
+			int b = i / tamañoBloque;
+			int finBloque = ( b + 1 ) * tamañoBloque;
+			if( b < bloques.size( ) && i == b * tamañoBloque && finBloque <= hasta ) // Bloque completo: se usa el encabezado
+			{
+				Bloque bloque = bloques.get( b );
+				if( posicion < 0 || bloque.maximo > max )
+				{
+					max = bloque.maximo;
+					posicion = i + bloque.posicionMaximo;
+				}
+				i = finBloque;
+			}
+			else
+			{
+				int fin = Math.min( hasta, finBloque );
+				for( ; i < fin; i++ )
+				{
+					double valor = darValor( i );
+					if( posicion < 0 || valor > max )
+					{
+						max = valor;
+						posicion = i;
+					}
+				}
+			}
+		}
+		return posicion;
+	}
+
+	@Override
+	int darPosicionMinimo( int desde, int hasta )
+	{
+		int posicion = -1;
+		double min = Double.POSITIVE_INFINITY;
+		int i = desde;
+		while( i < hasta )
+		{
+			int b = i / tamañoBloque;
+			int finBloque = ( b + 1 ) * tamañoBloque;
+			if( b < bloques.size( ) && i == b * tamañoBloque && finBloque <= hasta ) // Bloque completo: se usa el encabezado
+			{
+				Bloque bloque = bloques.get( b );
+				if( posicion < 0 || bloque.minimo < min )
+				{
+					min = bloque.minimo;
+					posicion = i + bloque.posicionMinimo;
+				}
+				i = finBloque;
+			}
+			else
+			{
+				int fin = Math.min( hasta, finBloque );
+				for( ; i < fin; i++ )
+				{
+					double valor = darValor( i );
+					if( posicion < 0 || valor < min )
+					{
+						min = valor;
+						posicion = i;
+					}
+				}
+			}
+		}
+		return posicion;
+	}
+
+	@Override
+	long darTiempo( int i )
+	{
+		int b = i / tamañoBloque;
+		if( b == bloques.size( ) )
+		{
+			return tiemposAbiertos[ i % tamañoBloque ];
+		}
+		return decodificarBloque( b ).tiempos[ i % tamañoBloque ];
+	}
+
+	@Override
+	double darValor( int i )
+	{
+		int b = i / tamañoBloque;
+		if( b == bloques.size( ) )
+		{
+			return valoresAbiertos[ i % tamañoBloque ];
+		}
+		return decodificarBloque( b ).valores[ i % tamañoBloque ];
+	}
+
+	@Override
+	void guardar( int posicion, long tiempo, double valor, String etiqueta )
+	{
+		int i = posicion % tamañoBloque;
+		tiemposAbiertos[ i ] = tiempo;
+		valoresAbiertos[ i ] = valor;
+		if( etiqueta != null )
+		{
+			etiquetas.put( posicion, etiqueta );
+		}
+		if( i == tamañoBloque - 1 )
+		{
+			comprimirBloque( );
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package com.dnarvaez27.line_chart;
+
+/**
+ * Modela una serie de datos de la gráfica.<br>
+ * Mantiene de forma incremental el mínimo, el máximo y la suma de los valores. La forma de guardar los datos la definen las subclases
+ *
+ * @author d.narvaez11
+ * @see SerieArreglo
+ * @see SerieComprimida
+ */
+abstract class SerieLineChart
+{
+	/**
+	 * Cantidad de datos de la serie
+	 */
+	private int cantidad;
+
+	/**
+	 * Valor máximo de la serie
+	 */
+	private double maximo;
+
+	/**
+	 * Valor mínimo de la serie
+	 */
+	private double minimo;
+
+	/**
+	 * Suma de los valores de la serie
+	 */
+	private double suma;
+
+	/**
+	 * Constructor de una serie vacía
+	 */
+	SerieLineChart( )
+	{
+		maximo = Double.NEGATIVE_INFINITY;
+		minimo = Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Agrega un dato a la serie
+	 *
+	 * @param tiempo Tiempo del dato en milisegundos
+	 * @param valor Valor del dato
+	 * @param etiqueta Etiqueta del dato. Puede ser null
+	 */
+	final void agregar( long tiempo, double valor, String etiqueta )
+	{
+		guardar( cantidad, tiempo, valor, etiqueta );
+		cantidad++;
+
+		maximo = Math.max( maximo, valor );
+		minimo = Math.min( minimo, valor );
+		suma += valor;
+	}
+
+	/**
+	 * Define los agregados de la serie cuando las subclases cargan los datos en bloque
+	 *
+	 * @param cantidad Cantidad de datos
+	 * @param minimo Valor mínimo
+	 * @param maximo Valor máximo
+	 * @param suma Suma de los valores
+	 */
+	final void asignarAgregados( int cantidad, double minimo, double maximo, double suma )
+	{
+		this.cantidad = cantidad;
+		this.minimo = minimo;
+		this.maximo = maximo;
+		this.suma = suma;
+	}
+
+	/**
+	 * Copia un rango de valores y tiempos en los arreglos dados
+	 *
+	 * @param desde Posición del primer dato
+	 * @param n Cantidad de datos a copiar
+	 * @param valores Arreglo destino de los valores, desde la posición 0
+	 * @param tiempos Arreglo destino de los tiempos, desde la posición 0
+	 */
+	void copiar( int desde, int n, double[ ] valores, long[ ] tiempos )
+	{
+		for( int i = 0; i < n; i++ )
+		{
+			valores[ i ] = darValor( desde + i );
+			tiempos[ i ] = darTiempo( desde + i );
+		}
+	}
+
+	/**
+	 * @return Cantidad de datos de la serie
+	 */
+	final int darCantidad( )
+	{
+		return cantidad;
+	}
+
+	/**
+	 * @param i Posición del dato
+	 * @return Etiqueta del dato, o null si no tiene
+	 */
+	abstract String darEtiqueta( int i );
+
+	/**
+	 * @return Valor máximo de la serie
+	 */
+	final double darMaximo( )
+	{
+		return maximo;
+	}
+
+	/**
+	 * @return Valor mínimo de la serie
+	 */
+	final double darMinimo( )
+	{
+		return minimo;
+	}
+
+	/**
+	 * @param desde Posición del primer dato del rango
+	 * @param hasta Posición siguiente al último dato del rango. Debe ser mayor que desde
+	 * @return Posición de la primera aparición del valor máximo del rango
+	 */
+	int darPosicionMaximo( int desde, int hasta )
+	{
+		int posicion = desde;
+		double max = darValor( desde );
+		for( int i = desde + 1; i < hasta; i++ )
+		{
+			double valor = darValor( i );
+			if( valor > max )
+			{
+				max = valor;
+				posicion = i;
+			}
+		}
+		return posicion;
+	}
+
+	/**
+	 * @param desde Posición del primer dato del rango
+	 * @param hasta Posición siguiente al último dato del rango. Debe ser mayor que desde
+	 * @return Posición de la primera aparición del valor mínimo del rango
+	 */
+	int darPosicionMinimo( int desde, int hasta )
+	{
+		int posicion = desde;
+		double min = darValor( desde );
+		for( int i = desde + 1; i < hasta; i++ )
+		{
+			double valor = darValor( i );
+			if( valor < min )
+			{
+				min = valor;
+				posicion = i;
+			}
+		}
+		return posicion;
+	}
+
+	/**
+	 * @return Suma de los valores de la serie
+	 */
+	final double darSuma( )
+	{
+		return suma;
+	}
+
+	/**
+	 * @param i Posición del dato
+	 * @return Tiempo del dato en milisegundos
+	 */
+	abstract long darTiempo( int i );
+
+	/**
+	 * @param i Posición del dato
+	 * @return Valor del dato
+	 */
+	abstract double darValor( int i );
+
+	/**
+	 * Guarda un dato en la posición dada, que siempre es la siguiente a la del último dato
+	 *
+	 * @param posicion Posición del dato
+	 * @param tiempo Tiempo del dato en milisegundos
+	 * @param valor Valor del dato
+	 * @param etiqueta Etiqueta del dato. Puede ser null
+	 */
+	abstract void guardar( int posicion, long tiempo, double valor, String etiqueta );
+}
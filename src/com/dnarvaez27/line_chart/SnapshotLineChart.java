@@ -0,0 +1,329 @@
+package com.dnarvaez27.line_chart;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Utilidades del formato binario de snapshot de la gráfica.<br>
+ * <b>Formato (big-endian): </b>
+ * <ul>
+ * <li>Encabezado: magic (int), versión (short), opciones (byte), colores presentes (byte), 4 colores ARGB (int)</li>
+ * <li>Opciones (bits): formato moneda (1), linea promedio (2), positivo y negativo (4), nombre en Popup (8), almacenamiento comprimido (16)</li>
+ * <li>Serie: cantidad (int), valores (cantidad doubles), tiempos (cantidad longs)</li>
+ * <li>Etiquetas: cantidad de etiquetas (int) y por cada una: posición (int), longitud (int) y bytes UTF-8</li>
+ * <li>Desde la versión 2, series adicionales: cantidad de series (int) y por cada una: nombre (longitud y bytes UTF-8), color ARGB (int) y su serie</li>
+ * </ul>
+ * La escritura y la lectura se hacen por bloques a través de un único buffer, copiando los arreglos de la serie en bloque.<br>
+ * Al leer, las cantidades y longitudes del canal no se usan para reservar memoria de antemano: los arreglos crecen a medida que llegan los
+ * bytes, de modo que un snapshot corrupto o truncado falla con una IOException y no con un OutOfMemoryError
+ *
+ * @author d.narvaez11
+ */
+final class SnapshotLineChart
+{
+	/**
+	 * Capacidad del buffer de lectura y escritura
+	 */
+	static final int capacidadBuffer = 1 << 16;
+
+	/**
+	 * Tamaño del encabezado en bytes
+	 */
+	static final int tamañoEncabezado = 4 + 2 + 1 + 1 + ( 4 * 4 );
+
+	/**
+	 * Número mágico del formato: "LCSN"
+	 */
+	static final int magic = 0x4C43534E;
+
+	/**
+	 * Mayor cantidad de datos de una serie, o de bytes de un texto, que puede tener el formato: el tamaño máximo de un arreglo
+	 */
+	static final int tamañoMaximo = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Versión actual del formato
+	 */
+	static final short version = 2;
+
+	private SnapshotLineChart( )
+	{
+	}
+
+	/**
+	 * Retorna un arreglo con espacio para al menos n bytes, duplicando su tamaño si es necesario, sin pasar del máximo
+	 *
+	 * @param bytes Arreglo actual
+	 * @param n Cantidad de bytes requeridos
+	 * @param maximo Tamaño máximo del arreglo
+	 * @return El mismo arreglo si tiene espacio, o una copia más grande
+	 */
+	private static byte[ ] crecer( byte[ ] bytes, int n, int maximo )
+	{
+		if( n <= bytes.length )
+		{
+			return bytes;
+		}
+		return Arrays.copyOf( bytes, ( int ) Math.min( maximo, Math.max( n, bytes.length * 2L ) ) );
+	}
+
+	/**
+	 * Asegura que el buffer (en modo lectura) tenga al menos n bytes disponibles, leyendo del canal si es necesario.<br>
+	 * Solo se leen del canal los bytes que faltan, para no consumir los que siguen al snapshot
+	 *
+	 * @param canal Canal del cual se lee
+	 * @param buffer Buffer en modo lectura
+	 * @param n Cantidad de bytes requeridos. No puede superar la capacidad del buffer
+	 * @throws IOException Si el canal termina antes de tiempo o hay un error de lectura
+	 */
+	static void exigir( ReadableByteChannel canal, ByteBuffer buffer, int n ) throws IOException
+	{
+		if( buffer.remaining( ) >= n )
+		{
+			return;
+		}
+		buffer.compact( );
+		buffer.limit( n );
+		while( buffer.position( ) < n )
+		{
+			if( canal.read( buffer ) < 0 )
+			{
+				throw new EOFException( "El snapshot termina antes de tiempo" );
+			}
+		}
+		buffer.flip( );
+	}
+
+	/**
+	 * Escribe en el canal el contenido pendiente del buffer (en modo escritura) y lo deja vacío
+	 *
+	 * @param canal Canal en el cual se escribe
+	 * @param buffer Buffer en modo escritura
+	 * @throws IOException Si hay un error de escritura
+	 */
+	static void vaciar( WritableByteChannel canal, ByteBuffer buffer ) throws IOException
+	{
+		buffer.flip( );
+		while( buffer.hasRemaining( ) )
+		{
+			canal.write( buffer );
+		}
+		buffer.clear( );
+	}
+
+	/**
+	 * Lee un texto del canal: longitud (int) y bytes UTF-8
+	 *
+	 * @param canal Canal del cual se lee
+	 * @param buffer Buffer en modo lectura
+	 * @return Texto leído
+	 * @throws IOException Si el formato no es válido o hay un error de lectura
+	 */
+	static String leerTexto( ReadableByteChannel canal, ByteBuffer buffer ) throws IOException
+	{
+		exigir( canal, buffer, 4 );
+		int longitud = buffer.getInt( );
+		if( longitud < 0 || longitud > tamañoMaximo )
+		{
+			throw new IOException( "Longitud de texto no válida: " + longitud );
+		}
+
+		byte[ ] bytes = new byte[ Math.min( longitud, buffer.capacity( ) ) ];
+		for( int i = 0; i < longitud; )
+		{
+			int n = Math.min( longitud - i, buffer.capacity( ) );
+			exigir( canal, buffer, n );
+			bytes = crecer( bytes, i + n, longitud );
+			buffer.get( bytes, i, n );
+			i += n;
+		}
+		return new String( bytes, StandardCharsets.UTF_8 );
+	}
+
+	/**
+	 * Asegura que el buffer (en modo escritura) tenga al menos n bytes libres, vaciándolo en el canal si es necesario
+	 *
+	 * @param canal Canal en el cual se escribe
+	 * @param buffer Buffer en modo escritura
+	 * @param n Cantidad de bytes requeridos. No puede superar la capacidad del buffer
+	 * @throws IOException Si hay un error de escritura
+	 */
+	static void reservar( WritableByteChannel canal, ByteBuffer buffer, int n ) throws IOException
+	{
+		if( buffer.remaining( ) < n )
+		{
+			vaciar( canal, buffer );
+		}
+	}
+
+	/**
+	 * Lee una serie del canal, sin crear objetos por dato (salvo las etiquetas existentes)
+	 *
+	 * @param canal Canal del cual se lee
+	 * @param buffer Buffer en modo lectura
+	 * @param comprimida True si la serie leída debe quedar comprimida en memoria
+	 * @return Serie leída
+	 * @throws IOException Si el formato no es válido o hay un error de lectura
+	 */
+	static SerieLineChart leerSerie( ReadableByteChannel canal, ByteBuffer buffer, boolean comprimida ) throws IOException
+	{
+		exigir( canal, buffer, 4 );
+		int cantidad = buffer.getInt( );
+		if( cantidad < 0 || cantidad > tamañoMaximo )
+		{
+			throw new IOException( "Cantidad de datos no válida: " + cantidad );
+		}
+
+		// Los tiempos y las etiquetas se reservan después de leer los valores, cuando ya llegaron tantos bytes como datos
+		double[ ] valores = new double[ Math.min( cantidad, buffer.capacity( ) / 8 ) ];
+		for( int i = 0; i < cantidad; )
+		{
+			int n = Math.min( cantidad - i, buffer.capacity( ) / 8 );
+			exigir( canal, buffer, n * 8 );
+			if( i + n > valores.length )
+			{
+				valores = Arrays.copyOf( valores, ( int ) Math.min( cantidad, Math.max( i + n, valores.length * 2L ) ) );
+			}
+			buffer.asDoubleBuffer( ).get( valores, i, n );
+			buffer.position( buffer.position( ) + ( n * 8 ) );
+			i += n;
+		}
+
+		long[ ] tiempos = new long[ cantidad ];
+		for( int i = 0; i < cantidad; )
+		{
+			int n = Math.min( cantidad - i, buffer.capacity( ) / 8 );
+			exigir( canal, buffer, n * 8 );
+			buffer.asLongBuffer( ).get( tiempos, i, n );
+			buffer.position( buffer.position( ) + ( n * 8 ) );
+			i += n;
+		}
+
+		exigir( canal, buffer, 4 );
+		int cantidadEtiquetas = buffer.getInt( );
+		String[ ] etiquetas = cantidadEtiquetas == 0 ? null : new String[ cantidad ];
+		for( int e = 0; e < cantidadEtiquetas; e++ )
+		{
+			exigir( canal, buffer, 4 );
+			int posicion = buffer.getInt( );
+			if( posicion < 0 || posicion >= cantidad )
+			{
+				throw new IOException( "Etiqueta no válida en la posición " + posicion );
+			}
+			etiquetas[ posicion ] = leerTexto( canal, buffer );
+		}
+
+		if( comprimida )
+		{
+			SerieComprimida serie = new SerieComprimida( );
+			for( int i = 0; i < cantidad; i++ )
+			{
+				serie.agregar( tiempos[ i ], valores[ i ], etiquetas == null ? null : etiquetas[ i ] );
+			}
+			return serie;
+		}
+		SerieArreglo serie = new SerieArreglo( );
+		serie.cargar( valores, tiempos, etiquetas, cantidad );
+		return serie;
+	}
+
+	/**
+	 * Escribe una serie en el canal
+	 *
+	 * @param canal Canal en el cual se escribe
+	 * @param buffer Buffer en modo escritura
+	 * @param serie Serie a escribir
+	 * @throws IOException Si hay un error de escritura
+	 */
+	static void escribirSerie( WritableByteChannel canal, ByteBuffer buffer, SerieLineChart serie ) throws IOException
+	{
+		int cantidad = serie.darCantidad( );
+		reservar( canal, buffer, 4 );
+		buffer.putInt( cantidad );
+
+		// Los valores y los tiempos se copian por bloques a arreglos intermedios y de ahí al buffer
+		int bloque = buffer.capacity( ) / 8;
+		double[ ] valores = new double[ Math.min( cantidad, bloque ) ];
+		long[ ] tiempos = new long[ valores.length ];
+
+		for( int i = 0; i < cantidad; )
+		{
+			int n = Math.min( cantidad - i, valores.length );
+			serie.copiar( i, n, valores, tiempos );
+			for( int j = 0; j < n; )
+			{
+				reservar( canal, buffer, 8 );
+				int m = Math.min( n - j, buffer.remaining( ) / 8 );
+				buffer.asDoubleBuffer( ).put( valores, j, m );
+				buffer.position( buffer.position( ) + ( m * 8 ) );
+				j += m;
+			}
+			i += n;
+		}
+
+		for( int i = 0; i < cantidad; )
+		{
+			int n = Math.min( cantidad - i, tiempos.length );
+			serie.copiar( i, n, valores, tiempos );
+			for( int j = 0; j < n; )
+			{
+				reservar( canal, buffer, 8 );
+				int m = Math.min( n - j, buffer.remaining( ) / 8 );
+				buffer.asLongBuffer( ).put( tiempos, j, m );
+				buffer.position( buffer.position( ) + ( m * 8 ) );
+				j += m;
+			}
+			i += n;
+		}
+
+		int cantidadEtiquetas = 0;
+		for( int i = 0; i < cantidad; i++ )
+		{
+			if( serie.darEtiqueta( i ) != null )
+			{
+				cantidadEtiquetas++;
+			}
+		}
+		reservar( canal, buffer, 4 );
+		buffer.putInt( cantidadEtiquetas );
+
+		for( int i = 0; cantidadEtiquetas > 0 && i < cantidad; i++ )
+		{
+			String etiqueta = serie.darEtiqueta( i );
+			if( etiqueta == null )
+			{
+				continue;
+			}
+			reservar( canal, buffer, 4 );
+			buffer.putInt( i );
+			escribirTexto( canal, buffer, etiqueta );
+		}
+	}
+
+	/**
+	 * Escribe un texto en el canal: longitud (int) y bytes UTF-8
+	 *
+	 * @param canal Canal en el cual se escribe
+	 * @param buffer Buffer en modo escritura
+	 * @param texto Texto a escribir
+	 * @throws IOException Si hay un error de escritura
+	 */
+	static void escribirTexto( WritableByteChannel canal, ByteBuffer buffer, String texto ) throws IOException
+	{
+		byte[ ] bytes = texto.getBytes( StandardCharsets.UTF_8 );
+		reservar( canal, buffer, 4 );
+		buffer.putInt( bytes.length );
+		for( int j = 0; j < bytes.length; )
+		{
+			reservar( canal, buffer, 1 );
+			int n = Math.min( bytes.length - j, buffer.remaining( ) );
+			buffer.put( bytes, j, n );
+			j += n;
+		}
+	}
+}
@@ -0,0 +1,223 @@
+package com.dnarvaez27.line_chart;
+
+import javax.swing.JComponent;
+import javax.swing.JTable;
+import javax.swing.table.TableCellRenderer;
+
+import com.dnarvaez27.line_chart.recursos.UtilidadesLineChart;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+
+/**
+ * Renderer liviano que pinta una gráfica de lineas mínima (sparkline) dentro de una celda de un JTable.<br>
+ * Una sola instancia se reutiliza para todas las celdas: no tiene listeners, etiquetas ni ejes, y pinta directamente desde el arreglo de valores de la celda.<br>
+ * <b>Uso: </b> <code>table.setDefaultRenderer( double[].class, new SparklineRenderer( ) )</code>
+ *
+ * @author d.narvaez11
+ */
+public class SparklineRenderer extends JComponent implements TableCellRenderer
+{
+	private static final long serialVersionUID = -3521860043627410895L;
+
+	/**
+	 * Margen interno de la celda
+	 */
+	private static final int margen = 2;
+
+	/**
+	 * Background configurado. Si es null se usa el de la tabla
+	 */
+	private Color background;
+
+	/**
+	 * Clip reutilizado entre pintadas para no crear objetos al pintar
+	 */
+	private final Rectangle clip = new Rectangle( );
+
+	/**
+	 * Background con el que se pinta la celda actual
+	 */
+	private Color fondo;
+
+	/**
+	 * Define el color para valores negativos
+	 */
+	private Color negative;
+
+	/**
+	 * Define el color para valores positivos
+	 */
+	private Color positive;
+
+	/**
+	 * Valores de la celda actual
+	 */
+	private double[ ] valores;
+
+	/**
+	 * Constructor del renderer
+	 */
+	public SparklineRenderer( )
+	{
+		setOpaque( true );
+	}
+
+	@Override
+	public Component getTableCellRendererComponent( JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column )
+	{
+		valores = value instanceof double[ ] ? ( double[ ] ) value : null;
+
+		if( isSelected )
+		{
+			fondo = table.getSelectionBackground( );
+		}
+		else
+		{
+			fondo = background == null ? table.getBackground( ) : background;
+		}
+		return this;
+	}
+
+	@Override
+	protected void paintComponent( Graphics g )
+	{
+		int width = getWidth( );
+		int height = getHeight( );
+
+		g.setColor( fondo );
+		g.fillRect( 0, 0, width, height );
+
+		double[ ] datos = valores;
+		if( datos == null || datos.length < 2 )
+		{
+			return;
+		}
+
+		double maxPos = 0;
+		double maxNeg = 0;
+		for( double valor : datos )
+		{
+			if( valor > maxPos )
+			{
+				maxPos = valor;
+			}
+			else if( valor < maxNeg )
+			{
+				maxNeg = valor;
+			}
+		}
+		double maxValue = Math.max( maxPos, -maxNeg );
+		boolean positivoYnegativo = maxNeg < 0;
+
+		// Se pintan solo los puntos dentro del clip (la celda completa cuando la pinta el JTable)
+		int inicio = 0;
+		int fin = datos.length - 1;
+		double ancho = width - ( margen * 2 );
+		if( g.getClipBounds( clip ) != null && !clip.isEmpty( ) && ancho > 0 )
+		{
+			inicio = Math.max( 0, ( int ) ( ( ( clip.x - margen ) * fin ) / ancho ) - 1 );
+			fin = Math.min( fin, ( int ) Math.ceil( ( ( clip.x + clip.width - margen ) * fin ) / ancho ) + 1 );
+		}
+
+		double halfHeight = positivoYnegativo ? height / 2.0 : height - margen;
+		double alto = positivoYnegativo ? halfHeight - margen : height - ( margen * 2 );
+		int eje = ( int ) halfHeight;
+
+		Color pos = positive == null ? UtilidadesLineChart.Colors.GREEN : positive;
+		Color neg = negative == null ? UtilidadesLineChart.Colors.PINK : negative;
+
+		int x1 = margen + ( int ) ( ( inicio * ancho ) / ( datos.length - 1 ) );
+		int y1 = ( int ) ( halfHeight - ( maxValue == 0 ? 0 : ( alto * datos[ inicio ] ) / maxValue ) );
+
+		for( int i = inicio + 1; i <= fin; i++ )
+		{
+			int x2 = margen + ( int ) ( ( i * ancho ) / ( datos.length - 1 ) );
+			int y2 = ( int ) ( halfHeight - ( maxValue == 0 ? 0 : ( alto * datos[ i ] ) / maxValue ) );
+
+			if( ( y1 <= eje ) && ( y2 <= eje ) ) // Ambos por Encima del eje
+			{
+				g.setColor( pos );
+				g.drawLine( x1, y1, x2, y2 );
+			}
+			else if( ( y1 >= eje ) && ( y2 >= eje ) ) // Ambos por Debajo del eje
+			{
+				g.setColor( neg );
+				g.drawLine( x1, y1, x2, y2 );
+			}
+			else // Cruza el eje: se parte la linea en el punto de corte
+			{
+				int xEn0 = x1 + ( ( ( x2 - x1 ) * ( y1 - eje ) ) / ( y1 - y2 ) );
+
+				g.setColor( y1 < eje ? pos : neg );
+				g.drawLine( x1, y1, xEn0, eje );
+
+				g.setColor( y2 < eje ? pos : neg );
+				g.drawLine( xEn0, eje, x2, y2 );
+			}
+
+			x1 = x2;
+			y1 = y2;
+		}
+	}
+
+	/**
+	 * Configura los colores Positivo, Negativo y Background<br>
+	 * <b>Info: </b> Si algún color es null se usa el mismo valor por defecto que en {@link LineChart}. Si bg es null se usa el background de la tabla
+	 *
+	 * @param pos Color de valores positivos
+	 * @param neg Color de valores negativos
+	 * @param bg Color del background
+	 */
+	public void setColors( Color pos, Color neg, Color bg )
+	{
+		positive = pos;
+		negative = neg;
+		background = bg;
+	}
+
+	// Los siguientes métodos se sobreescriben por rendimiento, igual que en DefaultTableCellRenderer:
+	// el renderer nunca hace parte de la jerarquía visible, por lo que no necesita validarse ni repintarse
+
+	@Override
+	public void invalidate( )
+	{
+	}
+
+	@Override
+	public void validate( )
+	{
+	}
+
+	@Override
+	public void revalidate( )
+	{
+	}
+
+	@Override
+	public void repaint( long tm, int x, int y, int width, int height )
+	{
+	}
+
+	@Override
+	public void repaint( Rectangle r )
+	{
+	}
+
+	@Override
+	public void repaint( )
+	{
+	}
+
+	@Override
+	protected void firePropertyChange( String propertyName, Object oldValue, Object newValue )
+	{
+	}
+
+	@Override
+	public void firePropertyChange( String propertyName, boolean oldValue, boolean newValue )
+	{
+	}
+}
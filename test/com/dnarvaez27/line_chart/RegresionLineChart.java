@@ -0,0 +1,390 @@
+package com.dnarvaez27.line_chart;
+
+import com.dnarvaez27.line_chart.recursos.UtilidadesLineChart.Colors;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Arnés de regresión visual y de rendimiento de LineChart.<br>
+ * Pinta un conjunto de escenarios en imágenes fuera de pantalla (en modo headless), compara cada imagen con su imagen de referencia dentro de una
+ * tolerancia y escribe un reporte JSON con el resultado, el tiempo de pintado y la memoria reservada por pintado de cada escenario.<br>
+ * <b>Uso </b> (desde la raíz del repositorio, con las clases de <code>src</code> y <code>test</code> compiladas en <code>bin</code>):
+ * <code>java -cp bin com.dnarvaez27.line_chart.RegresionLineChart [--generar] [--referencias dir] [--salida dir] [--tolerancia n]
+ * [--maxDiferentes fraccion] [--iteraciones n]</code><br>
+ * Las referencias están en <code>test/regresion</code>. El reporte y las imágenes de diferencias se escriben en <code>regresion-salida</code>.
+ * Termina con código 1 si algún escenario difiere de su referencia o no la tiene. Con <code>--generar</code> se reemplazan las referencias por
+ * las imágenes actuales.<br>
+ * <b>Info: </b> Todos los escenarios usan la misma fuente lógica, fijada explícitamente ({@link #fuente}). Las referencias se generaron en Linux
+ * con JDK 17, donde esa fuente es DejaVu Sans; en otra plataforma el texto puede diferir y las referencias deben generarse de nuevo
+ *
+ * @author d.narvaez11
+ */
+final class RegresionLineChart
+{
+	/**
+	 * Modela un escenario de pintado: un nombre, un tamaño y la gráfica a pintar
+	 *
+	 * @author d.narvaez11
+	 */
+	private static class Escenario
+	{
+		/**
+		 * Alto de la imagen
+		 */
+		private int alto;
+
+		/**
+		 * Ancho de la imagen
+		 */
+		private int ancho;
+
+		/**
+		 * Gráfica del escenario
+		 */
+		private LineChart chart;
+
+		/**
+		 * Nombre del escenario, usado para el archivo de referencia
+		 */
+		private String nombre;
+
+		/**
+		 * Constructor de un Escenario
+		 *
+		 * @param nombre Nombre del escenario
+		 * @param ancho Ancho de la imagen
+		 * @param alto Alto de la imagen
+		 * @param chart Gráfica del escenario
+		 */
+		public Escenario( String nombre, int ancho, int alto, LineChart chart )
+		{
+			this.nombre = nombre;
+			this.ancho = ancho;
+			this.alto = alto;
+			this.chart = chart;
+			chart.setFont( fuente );
+			chart.setSize( ancho, alto );
+		}
+	}
+
+	/**
+	 * Fuente de todos los escenarios, para que las imágenes no dependan del look and feel
+	 */
+	private static final Font fuente = new Font( Font.DIALOG, Font.PLAIN, 12 );
+
+	/**
+	 * Semilla de los datos aleatorios, para que los escenarios sean siempre los mismos
+	 */
+	private static final long semilla = 27;
+
+	/**
+	 * Tiempo del primer dato de los escenarios
+	 */
+	private static final long tiempoInicial = 1500000000000L;
+
+	private RegresionLineChart( )
+	{
+	}
+
+	/**
+	 * Crea una gráfica con datos aleatorios reproducibles
+	 *
+	 * @param cantidad Cantidad de datos
+	 * @param negativos True si los datos pueden ser negativos
+	 * @param etiquetas True si los datos tienen etiqueta
+	 * @return Gráfica con los datos
+	 */
+	private static LineChart crearGrafica( int cantidad, boolean negativos, boolean etiquetas )
+	{
+		Random random = new Random( semilla );
+		LineChart chart = new LineChart( );
+		double valor = 50000;
+		for( int i = 0; i < cantidad; i++ )
+		{
+			valor += ( random.nextDouble( ) - 0.5 ) * 20000;
+			valor = negativos ? valor : Math.abs( valor );
+			chart.agregarDato( tiempoInicial + ( i * 1000L ), valor, etiquetas ? "Dato" + ( i + 1 ) : null );
+		}
+		return chart;
+	}
+
+	/**
+	 * @return Escenarios de la regresión
+	 */
+	private static ArrayList<Escenario> crearEscenarios( )
+	{
+		ArrayList<Escenario> escenarios = new ArrayList<>( );
+
+		LineChart chart = crearGrafica( 20, false, true );
+		chart.setPositivoYnegativo( false );
+		escenarios.add( new Escenario( "positivo", 800, 400, chart ) );
+
+		chart = crearGrafica( 20, true, true );
+		escenarios.add( new Escenario( "positivoYnegativo", 800, 400, chart ) );
+
+		chart = crearGrafica( 20, true, true );
+		chart.ejeYFormatoMoneda( true );
+		escenarios.add( new Escenario( "moneda", 800, 400, chart ) );
+
+		chart = crearGrafica( 20, true, true );
+		chart.setLineaPromedio( true );
+		chart.setColors( Colors.BLANCO, Colors.BLANCO, Colors.AZUL_ED, Colors.BLANCO );
+		escenarios.add( new Escenario( "promedio", 800, 400, chart ) );
+
+		chart = crearGrafica( 1, true, true );
+		escenarios.add( new Escenario( "diminuta", 800, 400, chart ) );
+
+		chart = crearGrafica( 2, false, false );
+		chart.setPositivoYnegativo( false );
+		escenarios.add( new Escenario( "dosDatos", 200, 100, chart ) );
+
+		chart = crearGrafica( 200000, true, false );
+		escenarios.add( new Escenario( "enorme", 1200, 600, chart ) );
+
+		chart = crearGrafica( 200000, true, false );
+		chart.setAlmacenamientoComprimido( true );
+		escenarios.add( new Escenario( "enormeComprimida", 1200, 600, chart ) );
+
+		chart = crearGrafica( 5000, true, false );
+		Random random = new Random( semilla + 1 );
+		chart.agregarSerie( "a", Color.ORANGE );
+		chart.agregarSerie( "b", Color.CYAN );
+		for( int i = 0; i < 5000; i++ )
+		{
+			chart.agregarDatoSerie( "a", tiempoInicial + ( i * 1000L ), ( random.nextDouble( ) - 0.5 ) * 100000 );
+			chart.agregarDatoSerie( "b", tiempoInicial + ( i * 1000L ), Math.sin( i / 300.0 ) * 80000 );
+		}
+		escenarios.add( new Escenario( "series", 1000, 500, chart ) );
+
+		return escenarios;
+	}
+
+	/**
+	 * Cuenta los pixeles en los que dos imágenes difieren en más de la tolerancia en algún canal, marcándolos en la imagen de diferencias
+	 *
+	 * @param actual Imagen actual
+	 * @param referencia Imagen de referencia, del mismo tamaño
+	 * @param tolerancia Diferencia máxima permitida por canal
+	 * @param diferencias Imagen en la que se marcan los pixeles diferentes
+	 * @return Cantidad de pixeles diferentes
+	 */
+	private static int compararImagenes( BufferedImage actual, BufferedImage referencia, int tolerancia, BufferedImage diferencias )
+	{
+		int ancho = actual.getWidth( );
+		int[ ] filaActual = new int[ ancho ];
+		int[ ] filaReferencia = new int[ ancho ];
+		int diferentes = 0;
+		for( int y = 0; y < actual.getHeight( ); y++ )
+		{
+			actual.getRGB( 0, y, ancho, 1, filaActual, 0, ancho );
+			referencia.getRGB( 0, y, ancho, 1, filaReferencia, 0, ancho );
+			for( int x = 0; x < ancho; x++ )
+			{
+				int a = filaActual[ x ];
+				int b = filaReferencia[ x ];
+				int delta = 0;
+				for( int corrimiento = 0; corrimiento < 32; corrimiento += 8 )
+				{
+					delta = Math.max( delta, Math.abs( ( ( a >>> corrimiento ) & 0xFF ) - ( ( b >>> corrimiento ) & 0xFF ) ) );
+				}
+				if( delta > tolerancia )
+				{
+					diferentes++;
+					diferencias.setRGB( x, y, 0xFFFF0000 );
+				}
+				else
+				{
+					diferencias.setRGB( x, y, ( a >>> 2 ) & 0xFF3F3F3F );
+				}
+			}
+		}
+		return diferentes;
+	}
+
+	/**
+	 * @param texto Texto a escapar
+	 * @return Texto como cadena JSON, entre comillas
+	 */
+	private static String json( String texto )
+	{
+		return "\"" + texto.replace( "\\", "\\\\" ).replace( "\"", "\\\"" ) + "\"";
+	}
+
+	/**
+	 * Pinta la gráfica de un escenario en una imagen
+	 *
+	 * @param escenario Escenario a pintar
+	 * @param imagen Imagen en la que se pinta, del tamaño del escenario
+	 */
+	private static void pintar( Escenario escenario, BufferedImage imagen )
+	{
+		Graphics2D graphics2d = imagen.createGraphics( );
+		graphics2d.setFont( escenario.chart.getFont( ) );
+		escenario.chart.paint( graphics2d );
+		graphics2d.dispose( );
+	}
+
+	public static void main( String[ ] args ) throws IOException
+	{
+		System.setProperty( "java.awt.headless", "true" );
+
+		boolean generar = false;
+		File referencias = new File( "test/regresion" );
+		File salida = new File( "regresion-salida" );
+		int tolerancia = 8;
+		double maxDiferentes = 0.001;
+		int iteraciones = 20;
+		for( int i = 0; i < args.length; i++ )
+		{
+			switch( args[ i ] )
+			{
+				case "--generar":
+					generar = true;
+					break;
+				case "--referencias":
+					referencias = new File( args[ ++i ] );
+					break;
+				case "--salida":
+					salida = new File( args[ ++i ] );
+					break;
+				case "--tolerancia":
+					tolerancia = Integer.parseInt( args[ ++i ] );
+					break;
+				case "--maxDiferentes":
+					maxDiferentes = Double.parseDouble( args[ ++i ] );
+					break;
+				case "--iteraciones":
+					iteraciones = Integer.parseInt( args[ ++i ] );
+					break;
+				default:
+					throw new IllegalArgumentException( "Argumento no reconocido: " + args[ i ] );
+			}
+		}
+		for( File directorio : new File[ ] { referencias, salida } )
+		{
+			if( !directorio.isDirectory( ) && !directorio.mkdirs( ) )
+			{
+				throw new IOException( "No se pudo crear el directorio " + directorio );
+			}
+		}
+
+		// La memoria reservada solo se puede medir con la extensión de HotSpot. Solo cuenta la del hilo que pinta
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean( );
+		com.sun.management.ThreadMXBean memoriaBean = null;
+		if( threadBean instanceof com.sun.management.ThreadMXBean && ( ( com.sun.management.ThreadMXBean ) threadBean ).isThreadAllocatedMemorySupported( ) )
+		{
+			memoriaBean = ( com.sun.management.ThreadMXBean ) threadBean;
+			memoriaBean.setThreadAllocatedMemoryEnabled( true );
+		}
+		long hilo = Thread.currentThread( ).getId( );
+
+		boolean fallo = false;
+		ArrayList<String> resultados = new ArrayList<>( );
+		for( Escenario escenario : crearEscenarios( ) )
+		{
+			BufferedImage imagen = new BufferedImage( escenario.ancho, escenario.alto, BufferedImage.TYPE_INT_ARGB );
+
+			// Calentamiento, para medir el código ya compilado
+			for( int i = 0; i < Math.max( 1, iteraciones / 4 ); i++ )
+			{
+				pintar( escenario, imagen );
+			}
+
+			long[ ] tiempos = new long[ iteraciones ];
+			long memoria = 0;
+			for( int i = 0; i < iteraciones; i++ )
+			{
+				long memoriaInicial = memoriaBean == null ? 0 : memoriaBean.getThreadAllocatedBytes( hilo );
+				long inicio = System.nanoTime( );
+				pintar( escenario, imagen );
+				tiempos[ i ] = System.nanoTime( ) - inicio;
+				memoria += memoriaBean == null ? 0 : memoriaBean.getThreadAllocatedBytes( hilo ) - memoriaInicial;
+			}
+			Arrays.sort( tiempos );
+
+			File archivo = new File( referencias, escenario.nombre + ".png" );
+			File archivoDiferencias = new File( salida, escenario.nombre + "-diff.png" );
+			String estado;
+			int diferentes = 0;
+			if( generar )
+			{
+				ImageIO.write( imagen, "png", archivo );
+				estado = "generada";
+			}
+			else if( !archivo.exists( ) )
+			{
+				// Sin referencia no hay con qué comparar: cuenta como falla para que no pase desapercibido
+				ImageIO.write( imagen, "png", new File( salida, escenario.nombre + ".png" ) );
+				estado = "sinReferencia";
+			}
+			else
+			{
+				BufferedImage referencia = ImageIO.read( archivo );
+				if( referencia == null || referencia.getWidth( ) != imagen.getWidth( ) || referencia.getHeight( ) != imagen.getHeight( ) )
+				{
+					diferentes = imagen.getWidth( ) * imagen.getHeight( );
+				}
+				else
+				{
+					BufferedImage diferencias = new BufferedImage( imagen.getWidth( ), imagen.getHeight( ), BufferedImage.TYPE_INT_RGB );
+					diferentes = compararImagenes( imagen, referencia, tolerancia, diferencias );
+					if( diferentes > 0 )
+					{
+						ImageIO.write( diferencias, "png", archivoDiferencias );
+					}
+				}
+				estado = diferentes <= ( maxDiferentes * imagen.getWidth( ) * imagen.getHeight( ) ) ? "igual" : "diferente";
+			}
+			if( diferentes == 0 && archivoDiferencias.exists( ) )
+			{
+				archivoDiferencias.delete( );
+			}
+			fallo |= estado.equals( "diferente" ) || estado.equals( "sinReferencia" );
+
+			String resultado = String.format( Locale.ROOT,
+					"{\"escenario\": %s, \"ancho\": %d, \"alto\": %d, \"datos\": %d, \"estado\": %s, \"pixelesDiferentes\": %d, "
+							+ "\"tiempoMinimoMs\": %.3f, \"tiempoMedianoMs\": %.3f, \"tiempoMaximoMs\": %.3f, \"bytesPorPintado\": %d}",
+					json( escenario.nombre ), escenario.ancho, escenario.alto, escenario.chart.darCantidadDatos( ), json( estado ), diferentes,
+					tiempos[ 0 ] / 1e6, tiempos[ iteraciones / 2 ] / 1e6, tiempos[ iteraciones - 1 ] / 1e6,
+					memoriaBean == null ? -1 : memoria / iteraciones );
+			resultados.add( resultado );
+			System.out.println( resultado );
+		}
+
+		try( PrintWriter writer = new PrintWriter( new File( salida, "reporte.json" ), StandardCharsets.UTF_8.name( ) ) )
+		{
+			writer.println( "{" );
+			writer.println( "  \"java\": " + json( System.getProperty( "java.version" ) ) + "," );
+			writer.println( "  \"iteraciones\": " + iteraciones + "," );
+			writer.println( "  \"tolerancia\": " + tolerancia + "," );
+			writer.println( "  \"maxDiferentes\": " + maxDiferentes + "," );
+			writer.println( "  \"escenarios\": [" );
+			for( int i = 0; i < resultados.size( ); i++ )
+			{
+				writer.println( "    " + resultados.get( i ) + ( i < resultados.size( ) - 1 ? "," : "" ) );
+			}
+			writer.println( "  ]" );
+			writer.println( "}" );
+		}
+
+		if( fallo )
+		{
+			System.exit( 1 );
+		}
+	}
+}